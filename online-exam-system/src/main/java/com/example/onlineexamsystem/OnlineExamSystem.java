@@ -1,10 +1,12 @@
 package com.example.onlineexamsystem;
 
+import com.example.onlineexamsystem.api.ExamHttpServer;
 import com.example.onlineexamsystem.model.*; // Import all model classes
 import com.example.onlineexamsystem.service.ExamManagementSystem;
 import com.example.onlineexamsystem.service.ExamSession;
 import com.example.onlineexamsystem.user.AdminUser;
 import com.example.onlineexamsystem.user.StudentUser;
+import java.io.IOException;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
@@ -17,7 +19,7 @@ import java.util.concurrent.TimeUnit;
  */
 public class OnlineExamSystem {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         // Initialize the system
         ExamManagementSystem examSystem = new ExamManagementSystem();
 
@@ -150,5 +152,12 @@ public class OnlineExamSystem {
         });
 
         admin.generateExamSummary(exam);
+
+        // Optionally keep serving the demo data over HTTP: --serve <port>
+        if (args.length > 0 && args[0].equals("--serve")) {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+            int workers = Runtime.getRuntime().availableProcessors() * 4;
+            new ExamHttpServer(examSystem, port, workers, 10_000).start();
+        }
     }
 }
\ No newline at end of file
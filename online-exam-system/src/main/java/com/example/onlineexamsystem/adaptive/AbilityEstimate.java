@@ -0,0 +1,90 @@
+package com.example.onlineexamsystem.adaptive;
+
+import com.example.onlineexamsystem.model.ItemParameters;
+
+/**
+ * Running expected-a-posteriori (EAP) ability estimate of one candidate.
+ * The posterior is kept on a fixed quadrature grid with a standard normal prior, so each response
+ * costs one pass over the grid and no numerical optimisation.
+ */
+public class AbilityEstimate {
+    static final double THETA_MIN = -4.0;
+    static final double THETA_MAX = 4.0;
+    static final int GRID_POINTS = 81; // Step of 0.1
+    static final double GRID_STEP = (THETA_MAX - THETA_MIN) / (GRID_POINTS - 1);
+
+    private final double[] logPosterior = new double[GRID_POINTS];
+    private double theta;
+    private double standardError;
+    private int responses;
+
+    /**
+     * Creates an estimate at the prior (theta 0, standard error 1).
+     */
+    public AbilityEstimate() {
+        for (int i = 0; i < GRID_POINTS; i++) {
+            double t = gridTheta(i);
+            logPosterior[i] = -0.5 * t * t;
+        }
+        recompute();
+    }
+
+    /**
+     * Updates the estimate with a scored response.
+     *
+     * @param item    Parameters of the answered item.
+     * @param correct Whether the response was correct.
+     */
+    public void update(ItemParameters item, boolean correct) {
+        for (int i = 0; i < GRID_POINTS; i++) {
+            double p = item.probabilityCorrect(gridTheta(i));
+            logPosterior[i] += Math.log(correct ? p : 1 - p);
+        }
+        responses++;
+        recompute();
+    }
+
+    public double getTheta() {
+        return theta;
+    }
+
+    public double getStandardError() {
+        return standardError;
+    }
+
+    public int getResponseCount() {
+        return responses;
+    }
+
+    static double gridTheta(int index) {
+        return THETA_MIN + index * GRID_STEP;
+    }
+
+    /**
+     * Index of the grid point nearest to the given ability.
+     */
+    static int nearestGridIndex(double theta) {
+        long index = Math.round((theta - THETA_MIN) / GRID_STEP);
+        return (int) Math.max(0, Math.min(GRID_POINTS - 1, index));
+    }
+
+    private void recompute() {
+        double max = Double.NEGATIVE_INFINITY;
+        for (double value : logPosterior) {
+            max = Math.max(max, value);
+        }
+        double weightSum = 0;
+        double mean = 0;
+        double meanSquare = 0;
+        for (int i = 0; i < GRID_POINTS; i++) {
+            double weight = Math.exp(logPosterior[i] - max);
+            double t = gridTheta(i);
+            weightSum += weight;
+            mean += weight * t;
+            meanSquare += weight * t * t;
+        }
+        mean /= weightSum;
+        this.theta = mean;
+        this.standardError = Math.sqrt(Math.max(0, meanSquare / weightSum - mean * mean));
+    }
+}
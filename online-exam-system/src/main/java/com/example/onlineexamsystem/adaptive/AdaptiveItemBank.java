@@ -0,0 +1,139 @@
+package com.example.onlineexamsystem.adaptive;
+
+import com.example.onlineexamsystem.model.ItemParameters;
+import com.example.onlineexamsystem.model.ObjectiveQuestion;
+import com.example.onlineexamsystem.model.Question;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable, indexed item bank for adaptive testing, shared by all adaptive sessions of an exam.
+ *
+ * <p>At build time every calibrated objective question is sorted by the ability at which it is most
+ * informative, and for each point of the ability grid the {@value #TABLE_SIZE} most informative items are
+ * precomputed. Selecting the next item is then a lookup in that table, skipping items the candidate already
+ * saw. If a candidate has seen every tabled item for their ability, selection falls back to a binary search on
+ * the peak-ability index and compares a small window of neighbours, which keeps it O(log n) either way.
+ */
+public final class AdaptiveItemBank {
+    static final int TABLE_SIZE = 64;
+    private static final int FALLBACK_WINDOW = 32;
+
+    private final Question[] items; // Sorted by peak theta
+    private final ItemParameters[] parameters;
+    private final double[] peakTheta;
+    private final int[][] mostInformative; // Grid point -> item indices, most informative first
+
+    private AdaptiveItemBank(List<Question> sorted) {
+        int n = sorted.size();
+        this.items = sorted.toArray(new Question[0]);
+        this.parameters = new ItemParameters[n];
+        this.peakTheta = new double[n];
+        for (int i = 0; i < n; i++) {
+            parameters[i] = items[i].getIrtParameters();
+            peakTheta[i] = parameters[i].peakTheta();
+        }
+        this.mostInformative = new int[AbilityEstimate.GRID_POINTS][];
+        IntStream.range(0, AbilityEstimate.GRID_POINTS).parallel()
+                .forEach(g -> mostInformative[g] = topItemsAt(AbilityEstimate.gridTheta(g)));
+    }
+
+    /**
+     * Builds an item bank from the calibrated objective questions in the given collection.
+     * Questions without IRT parameters and essay questions are ignored.
+     *
+     * @param questions Candidate questions (e.g. a question pool).
+     * @return The item bank.
+     */
+    public static AdaptiveItemBank build(Collection<Question> questions) {
+        List<Question> calibrated = new ArrayList<>();
+        for (Question question : questions) {
+            if (question instanceof ObjectiveQuestion && question.getIrtParameters() != null) {
+                calibrated.add(question);
+            }
+        }
+        calibrated.sort(Comparator.comparingDouble(q -> q.getIrtParameters().peakTheta()));
+        return new AdaptiveItemBank(calibrated);
+    }
+
+    public int size() {
+        return items.length;
+    }
+
+    public Question getItem(int index) {
+        return items[index];
+    }
+
+    ItemParameters getParameters(int index) {
+        return parameters[index];
+    }
+
+    /**
+     * Selects the unused item with (approximately) maximum information at the given ability.
+     *
+     * @param theta        Current ability estimate.
+     * @param administered Indices of items the candidate has already received.
+     * @return Index of the selected item, or -1 if every item has been used.
+     */
+    public int select(double theta, BitSet administered) {
+        for (int index : mostInformative[AbilityEstimate.nearestGridIndex(theta)]) {
+            if (!administered.get(index)) {
+                return index;
+            }
+        }
+        return selectNearPeak(theta, administered);
+    }
+
+    private int selectNearPeak(double theta, BitSet administered) {
+        int insertion = Arrays.binarySearch(peakTheta, theta);
+        if (insertion < 0) {
+            insertion = -insertion - 1;
+        }
+        int best = -1;
+        double bestInformation = -1;
+        int left = insertion - 1;
+        int right = insertion;
+        int examined = 0;
+        while (examined < 2 * FALLBACK_WINDOW && (left >= 0 || right < items.length)) {
+            int index = left < 0 ? right++
+                    : right >= items.length ? left--
+                    : theta - peakTheta[left] <= peakTheta[right] - theta ? left-- : right++;
+            if (administered.get(index)) {
+                continue;
+            }
+            examined++;
+            double information = parameters[index].information(theta);
+            if (information > bestInformation) {
+                bestInformation = information;
+                best = index;
+            }
+        }
+        return best;
+    }
+
+    private int[] topItemsAt(double theta) {
+        int k = Math.min(TABLE_SIZE, items.length);
+        PriorityQueue<double[]> heap = new PriorityQueue<>(k + 1, Comparator.comparingDouble(entry -> entry[0]));
+        for (int i = 0; i < items.length; i++) {
+            double information = parameters[i].information(theta);
+            if (heap.size() < k) {
+                heap.add(new double[]{information, i});
+            } else if (information > heap.peek()[0]) {
+                heap.poll();
+                heap.add(new double[]{information, i});
+            }
+        }
+        int[] top = new int[heap.size()];
+        for (int i = top.length - 1; i >= 0; i--) {
+            top[i] = (int) heap.poll()[1];
+        }
+        return top;
+    }
+}
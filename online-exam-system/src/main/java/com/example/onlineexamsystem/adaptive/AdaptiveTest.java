@@ -0,0 +1,75 @@
+package com.example.onlineexamsystem.adaptive;
+
+import com.example.onlineexamsystem.model.Question;
+
+import java.util.BitSet;
+
+/**
+ * Per-session state of an adaptive test: the ability estimate and the items already administered.
+ */
+public class AdaptiveTest {
+    private final AdaptiveItemBank bank;
+    private final int testLength;
+    private final AbilityEstimate estimate = new AbilityEstimate();
+    private final BitSet administered;
+    private int currentItem = -1;
+    private int administeredCount = 0;
+
+    /**
+     * Constructor for AdaptiveTest.
+     *
+     * @param bank       The shared item bank.
+     * @param testLength Maximum number of items to administer.
+     */
+    public AdaptiveTest(AdaptiveItemBank bank, int testLength) {
+        this.bank = bank;
+        this.testLength = Math.min(testLength, bank.size());
+        this.administered = new BitSet(bank.size());
+    }
+
+    /**
+     * Selects the first item, targeted at the prior ability.
+     *
+     * @return The first question, or null if the bank is empty.
+     */
+    public Question first() {
+        return administerNext();
+    }
+
+    /**
+     * Scores the current item, updates the ability estimate and selects the next item.
+     *
+     * @param correct Whether the current item was answered correctly.
+     * @return The next question, or null once the test length is reached.
+     */
+    public Question next(boolean correct) {
+        if (currentItem >= 0) {
+            estimate.update(bank.getParameters(currentItem), correct);
+        }
+        return administerNext();
+    }
+
+    public AbilityEstimate getAbilityEstimate() {
+        return estimate;
+    }
+
+    public int getTestLength() {
+        return testLength;
+    }
+
+    private Question administerNext() {
+        if (administeredCount >= testLength) {
+            currentItem = -1;
+            return null;
+        }
+        int index = bank.select(estimate.getTheta(), administered);
+        if (index < 0) {
+            currentItem = -1;
+            return null;
+        }
+        administered.set(index);
+        administeredCount++;
+        currentItem = index;
+        return bank.getItem(index);
+    }
+}
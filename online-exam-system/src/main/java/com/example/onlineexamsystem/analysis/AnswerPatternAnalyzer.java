@@ -0,0 +1,229 @@
+package com.example.onlineexamsystem.analysis;
+
+import com.example.onlineexamsystem.model.Exam;
+import com.example.onlineexamsystem.model.ObjectiveQuestion;
+import com.example.onlineexamsystem.model.Question;
+import com.example.onlineexamsystem.service.ExamSession;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Flags pairs of candidates with suspiciously many identical wrong answers on objective questions.
+ *
+ * <p>Each submitted session is packed into bit vectors with 16 questions per {@code long}: a 4-bit option code per
+ * question (0 = unanswered, 1-14 = option, 15 = not one of the options, never counted as identical) and a
+ * correctness mask with the low bit of a nibble set where the answer is wrong. For a pair of sessions, identical
+ * option codes are found with one XOR and a nibble-zero test per word, and the shared wrong answers are counted
+ * with {@link Long#bitCount}.
+ * Only sessions in the same cluster (e.g. the same room or start-time window) are compared, and clusters are
+ * processed in parallel.
+ */
+public class AnswerPatternAnalyzer {
+    private static final long NIBBLE_LOW_BITS = 0x1111_1111_1111_1111L;
+    private static final int UNKNOWN_OPTION = 15;
+
+    private final Function<ExamSession, String> clusterKey;
+    private final int minSharedWrong;
+    private final double minSharedWrongRatio;
+
+    /**
+     * Constructor for AnswerPatternAnalyzer.
+     *
+     * @param clusterKey          Groups sessions that should be compared with each other (e.g. by room).
+     * @param minSharedWrong      Minimum number of identical wrong answers to flag a pair.
+     * @param minSharedWrongRatio Minimum share of identical wrong answers among questions both got wrong.
+     */
+    public AnswerPatternAnalyzer(Function<ExamSession, String> clusterKey, int minSharedWrong, double minSharedWrongRatio) {
+        this.clusterKey = clusterKey;
+        this.minSharedWrong = minSharedWrong;
+        this.minSharedWrongRatio = minSharedWrongRatio;
+    }
+
+    /**
+     * Cluster key that groups sessions started within the same time window.
+     *
+     * @param window Length of the start-time window.
+     * @return The cluster key function.
+     */
+    public static Function<ExamSession, String> byStartTimeWindow(Duration window) {
+        long windowSeconds = Math.max(1, window.getSeconds());
+        return session -> Long.toString(session.getStartTime().toEpochSecond(ZoneOffset.UTC) / windowSeconds);
+    }
+
+    /**
+     * Analyzes all submitted sessions of an exam.
+     *
+     * @param exam The exam to analyze.
+     * @return Flagged pairs, most shared wrong answers first.
+     */
+    public List<SuspiciousPair> analyze(Exam exam) {
+        List<ExamSession> sessions = exam.getExamSessions().stream()
+                .filter(ExamSession::isSubmitted)
+                .collect(Collectors.toList());
+        Map<Question, Integer> columns = new LinkedHashMap<>();
+        List<Map<Question, String>> answers = new ArrayList<>(sessions.size());
+        for (ExamSession session : sessions) {
+            Map<Question, String> sessionAnswers = session.getStudentAnswers();
+            answers.add(sessionAnswers);
+            for (Question question : sessionAnswers.keySet()) {
+                if (question instanceof ObjectiveQuestion) {
+                    columns.putIfAbsent(question, columns.size());
+                }
+            }
+        }
+
+        List<Map<String, Integer>> optionCodes = new ArrayList<>(columns.size());
+        for (Question question : columns.keySet()) {
+            Map<String, Integer> codes = new HashMap<>();
+            List<String> options = ((ObjectiveQuestion) question).getOptions();
+            for (int i = 0; i < options.size() && i < UNKNOWN_OPTION - 1; i++) {
+                codes.putIfAbsent(normalize(options.get(i)), i + 1);
+            }
+            optionCodes.add(codes);
+        }
+
+        int words = (columns.size() + 15) / 16;
+        PackedAnswers[] packed = new PackedAnswers[sessions.size()];
+        IntStream.range(0, sessions.size()).parallel().forEach(i ->
+                packed[i] = pack(sessions.get(i), answers.get(i), columns, optionCodes, words));
+
+        Map<String, List<PackedAnswers>> clusters = new HashMap<>();
+        for (PackedAnswers row : packed) {
+            clusters.computeIfAbsent(clusterKey.apply(row.session), key -> new ArrayList<>()).add(row);
+        }
+        ConcurrentLinkedQueue<SuspiciousPair> flagged = new ConcurrentLinkedQueue<>();
+        clusters.values().parallelStream().forEach(cluster -> compareWithin(cluster, flagged));
+
+        List<SuspiciousPair> result = new ArrayList<>(flagged);
+        result.sort(Comparator.comparingInt(SuspiciousPair::getSharedWrongAnswers).reversed());
+        return result;
+    }
+
+    private void compareWithin(List<PackedAnswers> cluster, Collection<SuspiciousPair> flagged) {
+        IntStream.range(0, cluster.size()).parallel().forEach(i -> {
+            PackedAnswers a = cluster.get(i);
+            if (a.wrongCount < minSharedWrong) {
+                return;
+            }
+            for (int j = i + 1; j < cluster.size(); j++) {
+                PackedAnswers b = cluster.get(j);
+                if (b.wrongCount < minSharedWrong) {
+                    continue;
+                }
+                int shared = 0;
+                int bothWrong = 0;
+                for (int w = 0; w < a.codes.length; w++) {
+                    long bothWrongBits = a.wrong[w] & b.wrong[w];
+                    if (bothWrongBits == 0) {
+                        continue;
+                    }
+                    long diff = a.codes[w] ^ b.codes[w];
+                    diff |= diff >>> 1;
+                    diff |= diff >>> 2; // Low bit of each nibble is now set iff the nibbles differ
+                    long codesA = a.codes[w];
+                    long unknown = codesA & (codesA >>> 1) & (codesA >>> 2) & (codesA >>> 3); // Code 15 never matches
+                    shared += Long.bitCount(bothWrongBits & ~diff & ~unknown & NIBBLE_LOW_BITS);
+                    bothWrong += Long.bitCount(bothWrongBits);
+                }
+                if (shared >= minSharedWrong && shared >= minSharedWrongRatio * bothWrong) {
+                    flagged.add(new SuspiciousPair(a.session, b.session, shared, bothWrong));
+                }
+            }
+        });
+    }
+
+    private static PackedAnswers pack(ExamSession session, Map<Question, String> answers, Map<Question, Integer> columns,
+                                      List<Map<String, Integer>> optionCodes, int words) {
+        long[] codes = new long[words];
+        long[] wrong = new long[words];
+        int wrongCount = 0;
+        for (Map.Entry<Question, String> entry : answers.entrySet()) {
+            Integer column = columns.get(entry.getKey());
+            if (column == null || entry.getValue() == null || entry.getValue().trim().isEmpty()) {
+                continue;
+            }
+            int code = optionCodes.get(column).getOrDefault(normalize(entry.getValue()), UNKNOWN_OPTION);
+            int shift = (column & 15) * 4;
+            codes[column >>> 4] |= (long) code << shift;
+            if (entry.getKey().checkAnswer(entry.getValue()) == 0) {
+                wrong[column >>> 4] |= 1L << shift;
+                wrongCount++;
+            }
+        }
+        return new PackedAnswers(session, codes, wrong, wrongCount);
+    }
+
+    private static String normalize(String answer) {
+        return answer.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class PackedAnswers {
+        final ExamSession session;
+        final long[] codes;
+        final long[] wrong;
+        final int wrongCount;
+
+        PackedAnswers(ExamSession session, long[] codes, long[] wrong, int wrongCount) {
+            this.session = session;
+            this.codes = codes;
+            this.wrong = wrong;
+            this.wrongCount = wrongCount;
+        }
+    }
+
+    /**
+     * Two sessions with many identical wrong answers.
+     */
+    public static final class SuspiciousPair {
+        private final ExamSession first;
+        private final ExamSession second;
+        private final int sharedWrongAnswers;
+        private final int bothWrong;
+
+        SuspiciousPair(ExamSession first, ExamSession second, int sharedWrongAnswers, int bothWrong) {
+            this.first = first;
+            this.second = second;
+            this.sharedWrongAnswers = sharedWrongAnswers;
+            this.bothWrong = bothWrong;
+        }
+
+        public ExamSession getFirst() {
+            return first;
+        }
+
+        public ExamSession getSecond() {
+            return second;
+        }
+
+        /**
+         * Number of questions both answered wrong with the same option.
+         *
+         * @return Shared wrong answers.
+         */
+        public int getSharedWrongAnswers() {
+            return sharedWrongAnswers;
+        }
+
+        /**
+         * Number of questions both answered wrong (with any option).
+         *
+         * @return Questions both got wrong.
+         */
+        public int getBothWrong() {
+            return bothWrong;
+        }
+    }
+}
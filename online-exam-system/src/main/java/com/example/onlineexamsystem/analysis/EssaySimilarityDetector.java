@@ -0,0 +1,272 @@
+package com.example.onlineexamsystem.analysis;
+
+import com.example.onlineexamsystem.analysis.EssaySimilarityReport.SimilarGroup;
+import com.example.onlineexamsystem.analysis.EssaySimilarityReport.SimilarPair;
+import com.example.onlineexamsystem.model.EssayQuestion;
+import com.example.onlineexamsystem.model.Exam;
+import com.example.onlineexamsystem.model.Question;
+import com.example.onlineexamsystem.service.ExamSession;
+
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Finds near-duplicate essay answers with MinHash signatures and locality-sensitive hashing.
+ *
+ * <p>Each essay is reduced to a set of word shingles and summarised by {@code bands * rows} MinHash values,
+ * computed in parallel. Signatures are split into bands and hashed into buckets; only essays sharing a bucket in
+ * at least one band are compared, so the work is near-linear in the number of essays rather than quadratic.
+ * Candidate pairs are kept when their estimated Jaccard similarity reaches the threshold.
+ *
+ * <p>Essays with identical signatures (e.g. the same copied text, or the same one-line answer) are reported once as
+ * a group instead of as every pair, and only one of them takes part in the banding. A bucket that still holds more
+ * than {@value #MAX_BUCKET_SIZE} distinct essays is not expanded into pairs: each member is compared with at most
+ * {@value #MAX_BUCKET_PIVOTS} pivots and grouped with the first one whose estimated similarity reaches the threshold.
+ */
+public class EssaySimilarityDetector {
+    static final int MAX_BUCKET_SIZE = 1000; // Larger buckets are reported as groups instead of pairs
+    static final int MAX_BUCKET_PIVOTS = 64; // Bounds the comparisons per member of an oversized bucket
+
+    private final int shingleSize;
+    private final int bands;
+    private final int rows;
+    private final double threshold;
+    private final long[] hashMultipliers;
+    private final long[] hashOffsets;
+
+    /**
+     * Constructor with defaults suited to a similarity threshold around 0.8
+     * (3-word shingles, 32 bands of 4 rows).
+     *
+     * @param threshold Minimum estimated Jaccard similarity to report.
+     */
+    public EssaySimilarityDetector(double threshold) {
+        this(3, 32, 4, threshold);
+    }
+
+    /**
+     * Constructor for EssaySimilarityDetector.
+     *
+     * @param shingleSize Number of consecutive words per shingle.
+     * @param bands       Number of LSH bands.
+     * @param rows        MinHash values per band.
+     * @param threshold   Minimum estimated Jaccard similarity to report.
+     */
+    public EssaySimilarityDetector(int shingleSize, int bands, int rows, double threshold) {
+        this.shingleSize = shingleSize;
+        this.bands = bands;
+        this.rows = rows;
+        this.threshold = threshold;
+        int hashes = bands * rows;
+        this.hashMultipliers = new long[hashes];
+        this.hashOffsets = new long[hashes];
+        SplittableRandom random = new SplittableRandom(0x5eed); // Fixed so reports are reproducible
+        for (int i = 0; i < hashes; i++) {
+            hashMultipliers[i] = random.nextLong() | 1L;
+            hashOffsets[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * Checks all submitted essay answers of an exam, question by question.
+     *
+     * @param exam The exam to check.
+     * @return The report of similar pairs per essay question.
+     */
+    public EssaySimilarityReport detect(Exam exam) {
+        Map<String, List<ExamSession>> sessionsByQuestion = new LinkedHashMap<>();
+        Map<String, List<String>> textsByQuestion = new HashMap<>();
+        for (ExamSession session : exam.getExamSessions()) {
+            if (!session.isSubmitted()) {
+                continue;
+            }
+            for (Map.Entry<Question, String> answer : session.getStudentAnswers().entrySet()) {
+                if (answer.getKey() instanceof EssayQuestion && answer.getValue() != null) {
+                    String questionId = answer.getKey().getQuestionId();
+                    sessionsByQuestion.computeIfAbsent(questionId, id -> new ArrayList<>()).add(session);
+                    textsByQuestion.computeIfAbsent(questionId, id -> new ArrayList<>()).add(answer.getValue());
+                }
+            }
+        }
+        EssaySimilarityReport report = new EssaySimilarityReport();
+        sessionsByQuestion.forEach((questionId, sessions) ->
+                findSimilar(questionId, sessions, textsByQuestion.get(questionId), report));
+        return report;
+    }
+
+    /**
+     * Finds similar pairs and groups among the essays of one question and adds them to a report.
+     *
+     * @param questionId The ID of the essay question.
+     * @param sessions   Sessions the essays belong to.
+     * @param texts      Essay texts, aligned with sessions.
+     * @param report     The report to add to.
+     */
+    void findSimilar(String questionId, List<ExamSession> sessions, List<String> texts, EssaySimilarityReport report) {
+        int n = texts.size();
+        int[][] signatures = new int[n][];
+        IntStream.range(0, n).parallel().forEach(i -> signatures[i] = signature(texts.get(i)));
+
+        // One representative per distinct signature; IntBuffer compares the wrapped arrays by content
+        Map<IntBuffer, List<Integer>> identical = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            if (signatures[i] != null) {
+                identical.computeIfAbsent(IntBuffer.wrap(signatures[i]), key -> new ArrayList<>(1)).add(i);
+            }
+        }
+        List<SimilarGroup> groups = new ArrayList<>();
+        int[] representatives = new int[identical.size()];
+        int distinct = 0;
+        for (List<Integer> members : identical.values()) {
+            representatives[distinct++] = members.get(0);
+            if (members.size() > 1) {
+                groups.add(new SimilarGroup(sessionsAt(sessions, members), 1.0));
+            }
+        }
+
+        Set<Long> candidates = new HashSet<>();
+        Set<Integer> grouped = new HashSet<>(); // Representatives already grouped in an oversized bucket
+        for (int band = 0; band < bands; band++) {
+            Map<Long, List<Integer>> buckets = new HashMap<>();
+            for (int i : representatives) {
+                buckets.computeIfAbsent(bandKey(signatures[i], band), key -> new ArrayList<>(2)).add(i);
+            }
+            for (List<Integer> bucket : buckets.values()) {
+                if (bucket.size() > MAX_BUCKET_SIZE) {
+                    groups.addAll(oversizedGroups(sessions, signatures, bucket, grouped));
+                    continue;
+                }
+                for (int a = 0; a < bucket.size(); a++) {
+                    for (int b = a + 1; b < bucket.size(); b++) {
+                        candidates.add(((long) bucket.get(a) << 32) | bucket.get(b));
+                    }
+                }
+            }
+        }
+
+        List<SimilarPair> pairs = new ArrayList<>();
+        for (long candidate : candidates) {
+            int a = (int) (candidate >>> 32);
+            int b = (int) candidate;
+            double similarity = estimateSimilarity(signatures[a], signatures[b]);
+            if (similarity >= threshold) {
+                pairs.add(new SimilarPair(sessions.get(a), sessions.get(b), similarity));
+            }
+        }
+        pairs.sort(Comparator.comparingDouble(SimilarPair::getSimilarity).reversed());
+        groups.sort(Comparator.comparingDouble(SimilarGroup::getSimilarity).reversed());
+        report.addPairs(questionId, pairs);
+        report.addGroups(questionId, groups);
+    }
+
+    /**
+     * Groups for a bucket too large to expand into pairs. Each member joins the first pivot whose estimated similarity
+     * to it reaches the threshold, or becomes a pivot itself while fewer than {@value #MAX_BUCKET_PIVOTS} exist;
+     * members close to no pivot are left to the other bands. A group's similarity is the lowest of a member to its
+     * pivot, which is the group's first member.
+     *
+     * @param grouped Members grouped in earlier oversized buckets, skipped here; this bucket's grouped members are added.
+     */
+    private List<SimilarGroup> oversizedGroups(List<ExamSession> sessions, int[][] signatures, List<Integer> bucket,
+                                               Set<Integer> grouped) {
+        List<List<Integer>> clusters = new ArrayList<>();
+        double[] lowest = new double[MAX_BUCKET_PIVOTS];
+        for (int member : bucket) {
+            if (grouped.contains(member)) {
+                continue;
+            }
+            int joined = -1;
+            for (int c = 0; c < clusters.size() && joined < 0; c++) {
+                double similarity = estimateSimilarity(signatures[clusters.get(c).get(0)], signatures[member]);
+                if (similarity >= threshold) {
+                    joined = c;
+                    lowest[c] = Math.min(lowest[c], similarity);
+                }
+            }
+            if (joined >= 0) {
+                clusters.get(joined).add(member);
+            } else if (clusters.size() < MAX_BUCKET_PIVOTS) {
+                lowest[clusters.size()] = 1.0;
+                clusters.add(new ArrayList<>(List.of(member)));
+            }
+        }
+        List<SimilarGroup> result = new ArrayList<>();
+        for (int c = 0; c < clusters.size(); c++) {
+            List<Integer> cluster = clusters.get(c);
+            if (cluster.size() > 1) {
+                grouped.addAll(cluster);
+                result.add(new SimilarGroup(sessionsAt(sessions, cluster), lowest[c]));
+            }
+        }
+        return result;
+    }
+
+    private static List<ExamSession> sessionsAt(List<ExamSession> sessions, List<Integer> indexes) {
+        List<ExamSession> members = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            members.add(sessions.get(index));
+        }
+        return members;
+    }
+
+    /**
+     * MinHash signature of an essay, or null if it has no words.
+     */
+    int[] signature(String text) {
+        String[] words = text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+");
+        List<String> tokens = new ArrayList<>(words.length);
+        for (String word : words) {
+            if (!word.isEmpty()) {
+                tokens.add(word);
+            }
+        }
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        int[] signature = new int[hashMultipliers.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        int shingles = Math.max(1, tokens.size() - shingleSize + 1);
+        for (int s = 0; s < shingles; s++) {
+            long shingle = 0xcbf29ce484222325L;
+            for (int w = s; w < Math.min(tokens.size(), s + shingleSize); w++) {
+                shingle = (shingle ^ tokens.get(w).hashCode()) * 0x100000001b3L;
+            }
+            for (int h = 0; h < signature.length; h++) {
+                int value = (int) ((shingle * hashMultipliers[h] + hashOffsets[h]) >>> 33); // Non-negative 31-bit hash
+                if (value < signature[h]) {
+                    signature[h] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    private long bandKey(int[] signature, int band) {
+        long key = band;
+        for (int r = band * rows; r < (band + 1) * rows; r++) {
+            key = key * 0x9E3779B97F4A7C15L + signature[r];
+        }
+        return key;
+    }
+
+    private static double estimateSimilarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / a.length;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.onlineexamsystem.analysis;
+
+import com.example.onlineexamsystem.service.ExamSession;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Near-duplicate essay pairs and groups found by EssaySimilarityDetector, by question.
+ */
+public class EssaySimilarityReport {
+    private final Map<String, List<SimilarPair>> pairsByQuestion = new LinkedHashMap<>();
+    private final Map<String, List<SimilarGroup>> groupsByQuestion = new LinkedHashMap<>();
+
+    void addPairs(String questionId, List<SimilarPair> pairs) {
+        if (!pairs.isEmpty()) {
+            pairsByQuestion.put(questionId, pairs);
+        }
+    }
+
+    void addGroups(String questionId, List<SimilarGroup> groups) {
+        if (!groups.isEmpty()) {
+            groupsByQuestion.put(questionId, groups);
+        }
+    }
+
+    /**
+     * Gets the similar pairs found for a question, most similar first.
+     *
+     * @param questionId The ID of the essay question.
+     * @return List of pairs (empty if none were found).
+     */
+    public List<SimilarPair> getPairs(String questionId) {
+        return pairsByQuestion.getOrDefault(questionId, Collections.emptyList());
+    }
+
+    /**
+     * Gets the groups of essays reported together for a question: identical essays, and essays sharing a bucket
+     * too large to list as pairs. Of a group of identical essays, only the first member appears in pairs.
+     *
+     * @param questionId The ID of the essay question.
+     * @return List of groups (empty if none were found).
+     */
+    public List<SimilarGroup> getGroups(String questionId) {
+        return groupsByQuestion.getOrDefault(questionId, Collections.emptyList());
+    }
+
+    /**
+     * Gets the IDs of the questions that have at least one similar pair or group.
+     *
+     * @return List of question IDs.
+     */
+    public List<String> getFlaggedQuestionIds() {
+        Set<String> flagged = new LinkedHashSet<>(pairsByQuestion.keySet());
+        flagged.addAll(groupsByQuestion.keySet());
+        return new ArrayList<>(flagged);
+    }
+
+    /**
+     * Prints the report to the console.
+     */
+    public void print() {
+        System.out.println("\n--- Essay Similarity Report ---");
+        List<String> flagged = getFlaggedQuestionIds();
+        if (flagged.isEmpty()) {
+            System.out.println("No similar essays found.");
+        }
+        for (String questionId : flagged) {
+            List<SimilarPair> pairs = getPairs(questionId);
+            List<SimilarGroup> groups = getGroups(questionId);
+            System.out.println("Question " + questionId + ": " + pairs.size() + " similar pair(s), "
+                    + groups.size() + " group(s)");
+            for (SimilarPair pair : pairs) {
+                System.out.println("  " + pair.getFirst().getStudent().getUsername() + " / "
+                        + pair.getSecond().getStudent().getUsername()
+                        + String.format(" (similarity %.2f)", pair.getSimilarity()));
+            }
+            for (SimilarGroup group : groups) {
+                System.out.println("  " + group.getSessions().size() + " essays: "
+                        + group.getSessions().get(0).getStudent().getUsername() + ", ..."
+                        + String.format(" (lowest similarity to the first %.2f)", group.getSimilarity()));
+            }
+        }
+        System.out.println("-------------------------------");
+    }
+
+    /**
+     * Two sessions whose essays for the same question are estimated to be similar.
+     */
+    public static final class SimilarPair {
+        private final ExamSession first;
+        private final ExamSession second;
+        private final double similarity;
+
+        SimilarPair(ExamSession first, ExamSession second, double similarity) {
+            this.first = first;
+            this.second = second;
+            this.similarity = similarity;
+        }
+
+        public ExamSession getFirst() {
+            return first;
+        }
+
+        public ExamSession getSecond() {
+            return second;
+        }
+
+        /**
+         * Estimated Jaccard similarity of the two essays' shingle sets.
+         *
+         * @return Similarity in [0, 1].
+         */
+        public double getSimilarity() {
+            return similarity;
+        }
+    }
+
+    /**
+     * Essays reported together: identical essays, or essays sharing a bucket too large to list as pairs.
+     */
+    public static final class SimilarGroup {
+        private final List<ExamSession> sessions;
+        private final double similarity;
+
+        SimilarGroup(List<ExamSession> sessions, double similarity) {
+            this.sessions = Collections.unmodifiableList(sessions);
+            this.similarity = similarity;
+        }
+
+        public List<ExamSession> getSessions() {
+            return sessions;
+        }
+
+        /**
+         * Lowest estimated Jaccard similarity of a member to the first one (1.0 for identical essays).
+         *
+         * @return Similarity in [0, 1].
+         */
+        public double getSimilarity() {
+            return similarity;
+        }
+    }
+}
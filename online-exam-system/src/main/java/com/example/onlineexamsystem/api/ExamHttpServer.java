@@ -0,0 +1,531 @@
+package com.example.onlineexamsystem.api;
+
+import com.example.onlineexamsystem.model.Exam;
+import com.example.onlineexamsystem.model.ExamResult;
+import com.example.onlineexamsystem.model.ObjectiveQuestion;
+import com.example.onlineexamsystem.model.Question;
+import com.example.onlineexamsystem.model.ScoreDistribution;
+import com.example.onlineexamsystem.service.ExamManagementSystem;
+import com.example.onlineexamsystem.service.ExamScheduler;
+import com.example.onlineexamsystem.service.ExamSession;
+import com.example.onlineexamsystem.user.AdminUser;
+import com.example.onlineexamsystem.user.StudentUser;
+import com.example.onlineexamsystem.user.User;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embedded HTTP/JSON front end for candidates and admins, built on the JDK's {@code com.sun.net.httpserver}.
+ *
+ * <p>Connections are kept alive and pipelined requests on a connection are served in order by the JDK server.
+ * Requests are handed to a fixed worker pool with a bounded queue; once the queue is full the accepting
+ * thread runs the request itself, which stops it from reading new requests until the backlog drains.
+ *
+ * <p>Login tokens expire after a period without requests (30 minutes by default); expired tokens are swept out of
+ * the token table on later logins.
+ *
+ * <p>Endpoints (request parameters are form-encoded, authenticated calls send {@code Authorization: Bearer <token>}):
+ * <pre>
+ * POST /api/login                     username, password -> token
+ * POST /api/logout                    invalidate the token
+ * GET  /api/exams                     published exams
+ * POST /api/exams/{examId}/sessions   start a session (student)
+ * GET  /api/exams/{examId}/result     own result (student)
+ * GET  /api/exams/{examId}/results    all results (admin)
+ * GET  /api/exams/{examId}/leaderboard n -> top n results (default 10; students see published results only)
+ * GET  /api/sessions/{id}/question    current question
+ * POST /api/sessions/{id}/answers     questionId, answer
+ * POST /api/sessions/{id}/next        move to the next question
+ * POST /api/sessions/{id}/submit      submit the exam
+ * </pre>
+ */
+public class ExamHttpServer {
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final Duration DEFAULT_TOKEN_TTL = Duration.ofMinutes(30);
+
+    private final ExamManagementSystem examSystem;
+    private final HttpServer server;
+    private final ThreadPoolExecutor workers;
+    private final Map<String, LoginToken> tokens = new ConcurrentHashMap<>();
+    private final long tokenTtlNanos;
+    private final AtomicLong nextSweepNanos = new AtomicLong(System.nanoTime());
+
+    /**
+     * Constructor for ExamHttpServer.
+     *
+     * @param examSystem    The ExamManagementSystem to expose.
+     * @param port          Port to listen on (0 picks a free port).
+     * @param workerThreads Number of request worker threads.
+     * @param queueCapacity Maximum number of requests waiting for a worker.
+     * @throws IOException If the server socket cannot be bound.
+     */
+    public ExamHttpServer(ExamManagementSystem examSystem, int port, int workerThreads, int queueCapacity) throws IOException {
+        this(examSystem, port, workerThreads, queueCapacity, DEFAULT_TOKEN_TTL);
+    }
+
+    /**
+     * Constructor for ExamHttpServer.
+     *
+     * @param examSystem    The ExamManagementSystem to expose.
+     * @param port          Port to listen on (0 picks a free port).
+     * @param workerThreads Number of request worker threads.
+     * @param queueCapacity Maximum number of requests waiting for a worker.
+     * @param tokenTtl      How long a login token stays valid without requests.
+     * @throws IOException If the server socket cannot be bound.
+     */
+    public ExamHttpServer(ExamManagementSystem examSystem, int port, int workerThreads, int queueCapacity,
+                          Duration tokenTtl) throws IOException {
+        if (tokenTtl.isNegative() || tokenTtl.isZero()) {
+            throw new IllegalArgumentException("Token lifetime must be positive.");
+        }
+        this.examSystem = examSystem;
+        this.tokenTtlNanos = tokenTtl.toNanos();
+        this.server = HttpServer.create(new InetSocketAddress(port), 4096);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerThreads, workerThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "exam-http-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        server.setExecutor(workers);
+        server.createContext("/api/login", safely(this::handleLogin));
+        server.createContext("/api/logout", safely(this::handleLogout));
+        server.createContext("/api/exams", safely(this::handleExams));
+        server.createContext("/api/sessions", safely(this::handleSessions));
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        server.start();
+        System.out.println("Exam HTTP API listening on port " + getPort());
+    }
+
+    /**
+     * Stops the server, waiting up to the given delay for in-flight exchanges to finish.
+     *
+     * @param delaySeconds Seconds to wait before closing connections.
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        workers.shutdown();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Gets the number of requests currently waiting for a worker thread.
+     *
+     * @return Queued request count.
+     */
+    public int getQueuedRequestCount() {
+        return workers.getQueue().size();
+    }
+
+    /**
+     * Gets the number of login tokens held, including expired ones not swept yet.
+     *
+     * @return Token count.
+     */
+    public int getTokenCount() {
+        return tokens.size();
+    }
+
+    private void handleLogin(HttpExchange exchange) throws IOException {
+        if (!requireMethod(exchange, "POST")) {
+            return;
+        }
+        Map<String, String> params = readParams(exchange);
+        if (params == null) {
+            return;
+        }
+        User user = examSystem.authenticate(params.get("username"), params.get("password"));
+        if (user == null) {
+            sendError(exchange, 401, "Invalid username or password.");
+            return;
+        }
+        sweepExpiredTokens();
+        String token = UUID.randomUUID().toString();
+        tokens.put(token, new LoginToken(user, System.nanoTime() + tokenTtlNanos));
+        send(exchange, 200, new JsonWriter().beginObject()
+                .field("token", token)
+                .field("userId", user.getUserId())
+                .field("role", user instanceof AdminUser ? "admin" : "student")
+                .endObject());
+    }
+
+    private void handleLogout(HttpExchange exchange) throws IOException {
+        if (!requireMethod(exchange, "POST")) {
+            return;
+        }
+        String token = bearerToken(exchange);
+        if (token == null || tokens.remove(token) == null) {
+            sendError(exchange, 401, "Login required.");
+            return;
+        }
+        send(exchange, 200, new JsonWriter().beginObject().field("loggedOut", true).endObject());
+    }
+
+    /**
+     * Drops expired tokens, at most once per quarter of the token lifetime.
+     */
+    private void sweepExpiredTokens() {
+        long now = System.nanoTime();
+        long due = nextSweepNanos.get();
+        if (now - due < 0 || !nextSweepNanos.compareAndSet(due, now + tokenTtlNanos / 4)) {
+            return;
+        }
+        tokens.values().removeIf(token -> token.isExpired(now));
+    }
+
+    private void handleExams(HttpExchange exchange) throws IOException {
+        User user = authenticate(exchange);
+        if (user == null) {
+            return;
+        }
+        String[] path = pathSegments(exchange, "/api/exams");
+        if (path.length == 0) {
+            if (requireMethod(exchange, "GET")) {
+                listExams(exchange, user);
+            }
+            return;
+        }
+        Exam exam = examSystem.getExamById(path[0]);
+        if (exam == null || path.length != 2) {
+            sendError(exchange, 404, "Not found.");
+            return;
+        }
+        switch (path[1]) {
+            case "sessions":
+                if (requireMethod(exchange, "POST") && requireStudent(exchange, user)) {
+                    startSession(exchange, (StudentUser) user, exam);
+                }
+                break;
+            case "result":
+                if (requireMethod(exchange, "GET") && requireStudent(exchange, user)) {
+                    ExamResult result = ((StudentUser) user).viewExamResult(exam);
+                    if (result == null) {
+                        sendError(exchange, 404, "No result for this exam.");
+                    } else {
+                        ScoreDistribution distribution = exam.getScoreDistribution();
+                        send(exchange, 200, new JsonWriter().beginObject()
+                                .field("resultId", result.getResultId())
+                                .field("score", result.getScore())
+                                .field("totalMarks", result.getTotalMarks())
+                                .field("published", result.isPublished())
+                                .field("rank", distribution.rankOf(result.getScore()))
+                                .field("percentile", Math.round(distribution.percentileOf(result.getScore()) * 10) / 10.0)
+                                .field("candidates", distribution.getTotalCount())
+                                .endObject());
+                    }
+                }
+                break;
+            case "results":
+                if (requireMethod(exchange, "GET")) {
+                    if (!(user instanceof AdminUser)) {
+                        sendError(exchange, 403, "Admin access required.");
+                        return;
+                    }
+                    JsonWriter json = new JsonWriter().beginObject().beginArray("results");
+                    for (ExamResult result : ((AdminUser) user).viewExamResults(exam)) {
+                        writeResult(json, result);
+                    }
+                    send(exchange, 200, json.endArray().endObject());
+                }
+                break;
+            case "leaderboard":
+                if (requireMethod(exchange, "GET")) {
+                    Map<String, String> params = readParams(exchange);
+                    if (params == null) {
+                        return;
+                    }
+                    String n = params.get("n");
+                    int limit = n == null ? 10 : Math.min(1000, Math.max(0, parseIntOrZero(n)));
+                    JsonWriter json = new JsonWriter().beginObject().beginArray("results");
+                    boolean admin = user instanceof AdminUser;
+                    for (ExamResult result : exam.getScoreDistribution().topResults(limit,
+                            result -> admin || result.isPublished())) {
+                        writeResult(json, result);
+                    }
+                    send(exchange, 200, json.endArray().endObject());
+                }
+                break;
+            default:
+                sendError(exchange, 404, "Not found.");
+        }
+    }
+
+    private static int parseIntOrZero(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private void listExams(HttpExchange exchange, User user) throws IOException {
+        JsonWriter json = new JsonWriter().beginObject().beginArray("exams");
+        for (Exam exam : examSystem.getAllExams()) {
+            if (!exam.isPublished() && !(user instanceof AdminUser)) {
+                continue;
+            }
+            json.beginObject()
+                    .field("examId", exam.getExamId())
+                    .field("examName", exam.getExamName())
+                    .field("durationSeconds", exam.getDuration().getSeconds())
+                    .field("published", exam.isPublished())
+                    .endObject();
+        }
+        send(exchange, 200, json.endArray().endObject());
+    }
+
+    private void startSession(HttpExchange exchange, StudentUser student, Exam exam) throws IOException {
+        ExamScheduler scheduler = exam.getScheduler();
+        ExamScheduler.Admission admission = scheduler != null
+                ? scheduler.admit(student, Instant.now()) : ExamScheduler.Admission.ADMITTED;
+        ExamSession session = examSystem.startExam(student, exam, admission);
+        if (session == null) {
+            if (admission == ExamScheduler.Admission.TOO_EARLY) {
+                sendError(exchange, 409, "Exam cannot be started before your slot at "
+                        + scheduler.getAssignedStart(student) + ".");
+            } else if (admission == ExamScheduler.Admission.MISSED) {
+                sendError(exchange, 409, "Your start slot has ended.");
+            } else {
+                sendError(exchange, 409, "Exam cannot be started.");
+            }
+            return;
+        }
+        send(exchange, 201, new JsonWriter().beginObject()
+                .field("sessionId", session.getSessionId())
+                .field("questionCount", session.getQuestionCount())
+                .endObject());
+    }
+
+    private void handleSessions(HttpExchange exchange) throws IOException {
+        User user = authenticate(exchange);
+        if (user == null) {
+            return;
+        }
+        String[] path = pathSegments(exchange, "/api/sessions");
+        ExamSession session = path.length == 2 ? examSystem.getSessionById(path[0]) : null;
+        if (session == null || session.getStudent() != user) {
+            sendError(exchange, 404, "Session not found.");
+            return;
+        }
+        switch (path[1]) {
+            case "question":
+                if (requireMethod(exchange, "GET")) {
+                    sendCurrentQuestion(exchange, session);
+                }
+                break;
+            case "answers":
+                if (requireMethod(exchange, "POST")) {
+                    Map<String, String> params = readParams(exchange);
+                    if (params == null) {
+                        return;
+                    }
+                    Question question = session.findQuestion(params.getOrDefault("questionId", ""));
+                    if (question == null) {
+                        sendError(exchange, 400, "Question is not part of this exam session.");
+                    } else if (!session.submitAnswer(question, params.get("answer"))) {
+                        sendError(exchange, 409, session.isSubmitted() ? "Exam already submitted." : "Exam is not active.");
+                    } else {
+                        send(exchange, 200, new JsonWriter().beginObject().field("accepted", true).endObject());
+                    }
+                }
+                break;
+            case "next":
+                if (requireMethod(exchange, "POST")) {
+                    session.moveToNextQuestion();
+                    sendCurrentQuestion(exchange, session);
+                }
+                break;
+            case "submit":
+                if (requireMethod(exchange, "POST")) {
+                    ExamResult result = ((StudentUser) user).submitExam(session);
+                    send(exchange, 200, writeResult(new JsonWriter(), result));
+                }
+                break;
+            default:
+                sendError(exchange, 404, "Not found.");
+        }
+    }
+
+    private void sendCurrentQuestion(HttpExchange exchange, ExamSession session) throws IOException {
+        Question question = session.getCurrentQuestion();
+        JsonWriter json = new JsonWriter().beginObject()
+                .field("index", session.getCurrentQuestionIndex())
+                .field("questionCount", session.getQuestionCount())
+                .field("timeRemaining", session.getTimeRemainingFormatted());
+        if (question != null) {
+            json.field("questionId", question.getQuestionId())
+                    .field("questionText", question.getQuestionText())
+                    .field("marks", question.getMarks())
+                    .field("type", question instanceof ObjectiveQuestion ? "objective" : "essay");
+            if (question instanceof ObjectiveQuestion) {
+                json.beginArray("options");
+                for (String option : ((ObjectiveQuestion) question).getOptions()) {
+                    json.value(option);
+                }
+                json.endArray();
+            }
+        }
+        send(exchange, 200, json.endObject());
+    }
+
+    private JsonWriter writeResult(JsonWriter json, ExamResult result) {
+        return json.beginObject()
+                .field("resultId", result.getResultId())
+                .field("student", result.getExamSession().getStudent().getUsername())
+                .field("score", result.getScore())
+                .field("totalMarks", result.getTotalMarks())
+                .field("published", result.isPublished())
+                .endObject();
+    }
+
+    private User authenticate(HttpExchange exchange) throws IOException {
+        String token = bearerToken(exchange);
+        LoginToken login = token != null ? tokens.get(token) : null;
+        long now = System.nanoTime();
+        if (login != null && login.isExpired(now)) {
+            tokens.remove(token, login);
+            login = null;
+        }
+        if (login == null) {
+            sendError(exchange, 401, "Login required.");
+            return null;
+        }
+        login.expiresAtNanos = now + tokenTtlNanos; // Sliding expiry
+        return login.user;
+    }
+
+    private static String bearerToken(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        return header != null && header.startsWith("Bearer ") ? header.substring(7).trim() : null;
+    }
+
+    private boolean requireStudent(HttpExchange exchange, User user) throws IOException {
+        if (!(user instanceof StudentUser)) {
+            sendError(exchange, 403, "Student access required.");
+            return false;
+        }
+        return true;
+    }
+
+    private boolean requireMethod(HttpExchange exchange, String method) throws IOException {
+        if (!method.equals(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().set("Allow", method);
+            sendError(exchange, 405, "Method not allowed.");
+            return false;
+        }
+        return true;
+    }
+
+    private static String[] pathSegments(HttpExchange exchange, String prefix) {
+        String rest = exchange.getRequestURI().getPath().substring(prefix.length());
+        rest = rest.replaceAll("^/+|/+$", "");
+        return rest.isEmpty() ? new String[0] : rest.split("/+");
+    }
+
+    /**
+     * Reads the query string and form body parameters.
+     *
+     * @return The parameters, or null if the body exceeds the size limit (a 413 response has been sent).
+     */
+    private static Map<String, String> readParams(HttpExchange exchange) throws IOException {
+        Map<String, String> params = new HashMap<>();
+        parseForm(exchange.getRequestURI().getRawQuery(), params);
+        try (InputStream body = exchange.getRequestBody()) {
+            byte[] bytes = body.readNBytes(MAX_BODY_BYTES + 1); // One byte over the limit tells a full body from a cut one
+            if (bytes.length > MAX_BODY_BYTES) {
+                sendError(exchange, 413, "Request body exceeds " + MAX_BODY_BYTES + " bytes.");
+                return null;
+            }
+            parseForm(new String(bytes, StandardCharsets.UTF_8), params);
+        }
+        return params;
+    }
+
+    private static void parseForm(String form, Map<String, String> params) {
+        if (form == null || form.isEmpty()) {
+            return;
+        }
+        for (String pair : form.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        send(exchange, status, new JsonWriter().beginObject().field("error", message).endObject());
+    }
+
+    private static void send(HttpExchange exchange, int status, JsonWriter json) throws IOException {
+        byte[] body = json.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length); // Fixed length keeps the connection reusable
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static HttpHandler safely(HttpHandler handler) {
+        return exchange -> {
+            try {
+                handler.handle(exchange);
+            } catch (RuntimeException e) {
+                System.out.println("Request " + exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath()
+                        + " failed: " + e);
+                if (exchange.getResponseCode() == -1) { // Headers not sent yet
+                    sendError(exchange, 500, "Internal server error.");
+                }
+            } finally {
+                exchange.close();
+            }
+        };
+    }
+
+    /**
+     * A user's login, valid until its expiry time is passed without further requests.
+     */
+    private static final class LoginToken {
+        final User user;
+        volatile long expiresAtNanos;
+
+        LoginToken(User user, long expiresAtNanos) {
+            this.user = user;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        boolean isExpired(long nowNanos) {
+            return nowNanos - expiresAtNanos >= 0;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.onlineexamsystem.api;
+
+/**
+ * Minimal streaming JSON writer used by the HTTP API (avoids pulling in a JSON library).
+ * Commas between members and array elements are inserted automatically.
+ */
+public class JsonWriter {
+    private final StringBuilder out = new StringBuilder(128);
+    private boolean needsComma = false;
+
+    public JsonWriter beginObject() {
+        separate();
+        out.append('{');
+        needsComma = false;
+        return this;
+    }
+
+    public JsonWriter endObject() {
+        out.append('}');
+        needsComma = true;
+        return this;
+    }
+
+    public JsonWriter beginArray(String name) {
+        name(name);
+        out.append('[');
+        needsComma = false;
+        return this;
+    }
+
+    public JsonWriter endArray() {
+        out.append(']');
+        needsComma = true;
+        return this;
+    }
+
+    public JsonWriter field(String name, String value) {
+        name(name);
+        if (value == null) {
+            out.append("null");
+        } else {
+            quote(value);
+        }
+        needsComma = true;
+        return this;
+    }
+
+    public JsonWriter field(String name, long value) {
+        name(name);
+        out.append(value);
+        needsComma = true;
+        return this;
+    }
+
+    public JsonWriter field(String name, double value) {
+        name(name);
+        out.append(Double.isFinite(value) ? Double.toString(value) : "null");
+        needsComma = true;
+        return this;
+    }
+
+    public JsonWriter field(String name, boolean value) {
+        name(name);
+        out.append(value);
+        needsComma = true;
+        return this;
+    }
+
+    /**
+     * Writes a string element inside an array.
+     *
+     * @param value The string value.
+     * @return This writer.
+     */
+    public JsonWriter value(String value) {
+        separate();
+        quote(value);
+        needsComma = true;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return out.toString();
+    }
+
+    private void name(String name) {
+        separate();
+        if (name != null) {
+            quote(name);
+            out.append(':');
+        }
+    }
+
+    private void separate() {
+        if (needsComma) {
+            out.append(',');
+            needsComma = false;
+        }
+    }
+
+    private void quote(String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.onlineexamsystem.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Immutable consistent-hash ring mapping keys to node IDs.
+ * Every node is placed on the ring at several virtual points so load spreads evenly and
+ * only about 1/N of the keys move when a node joins or leaves.
+ */
+public final class ConsistentHashRing {
+    private final NavigableMap<Long, String> points;
+    private final int virtualNodes;
+
+    /**
+     * Creates an empty ring.
+     *
+     * @param virtualNodes Number of ring points per node.
+     */
+    public ConsistentHashRing(int virtualNodes) {
+        this(new TreeMap<>(), virtualNodes);
+    }
+
+    private ConsistentHashRing(NavigableMap<Long, String> points, int virtualNodes) {
+        this.points = Collections.unmodifiableNavigableMap(points);
+        this.virtualNodes = virtualNodes;
+    }
+
+    /**
+     * Returns a new ring that also contains the given node.
+     *
+     * @param nodeId The ID of the node to add.
+     * @return The new ring.
+     */
+    public ConsistentHashRing withNode(String nodeId) {
+        TreeMap<Long, String> copy = new TreeMap<>(points);
+        for (int i = 0; i < virtualNodes; i++) {
+            copy.put(hash(nodeId + "#" + i), nodeId);
+        }
+        return new ConsistentHashRing(copy, virtualNodes);
+    }
+
+    /**
+     * Returns a new ring without the given node.
+     *
+     * @param nodeId The ID of the node to remove.
+     * @return The new ring.
+     */
+    public ConsistentHashRing withoutNode(String nodeId) {
+        TreeMap<Long, String> copy = new TreeMap<>(points);
+        copy.values().removeIf(nodeId::equals);
+        return new ConsistentHashRing(copy, virtualNodes);
+    }
+
+    /**
+     * Finds the node that owns a key.
+     *
+     * @param key The partition key (e.g. student username, session ID or exam ID).
+     * @return The owning node ID, or null if the ring is empty.
+     */
+    public String nodeFor(String key) {
+        if (points.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> owner = points.ceilingEntry(hash(key));
+        return (owner != null ? owner : points.firstEntry()).getValue();
+    }
+
+    public boolean isEmpty() {
+        return points.isEmpty();
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, followed by a final avalanche mix so that similar keys spread apart.
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,336 @@
+package com.example.onlineexamsystem.cluster;
+
+import com.example.onlineexamsystem.model.Exam;
+import com.example.onlineexamsystem.model.ExamResult;
+import com.example.onlineexamsystem.model.ObjectiveQuestion;
+import com.example.onlineexamsystem.model.Question;
+import com.example.onlineexamsystem.model.QuestionPool;
+import com.example.onlineexamsystem.service.ExamManagementSystem;
+import com.example.onlineexamsystem.service.ExamSession;
+import com.example.onlineexamsystem.user.AdminUser;
+import com.example.onlineexamsystem.user.StudentUser;
+import com.example.onlineexamsystem.user.User;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Partitions users, exams and sessions across several ExamManagementSystem nodes with consistent hashing,
+ * and forwards each call to the node that owns the key.
+ *
+ * <p>Users are placed by username (the key available at login), exams by exam ID and sessions by session ID.
+ * When a node joins, entries whose owner changed are moved to it; when a node leaves, its entries are handed
+ * to their new owners. Entries are copied to their new owners before the new ring is published and removed from
+ * the old ones only afterwards, so a lookup racing a move finds the entry on whichever node the ring it read
+ * points to. Calls that place new entries hold the membership read lock and membership changes hold the write
+ * lock, so an entry is never placed on a node by a ring that a concurrent move has already replaced.
+ */
+public class ExamClusterRouter {
+    private static final int DEFAULT_VIRTUAL_NODES = 128;
+
+    private final Map<String, ExamNode> nodes = new ConcurrentHashMap<>();
+    private volatile ConsistentHashRing ring;
+    private final ReentrantReadWriteLock membershipLock = new ReentrantReadWriteLock();
+
+    /**
+     * Constructor for ExamClusterRouter.
+     */
+    public ExamClusterRouter() {
+        this(DEFAULT_VIRTUAL_NODES);
+    }
+
+    /**
+     * Constructor for ExamClusterRouter.
+     *
+     * @param virtualNodes Number of ring points per node.
+     */
+    public ExamClusterRouter(int virtualNodes) {
+        this.ring = new ConsistentHashRing(virtualNodes);
+    }
+
+    /**
+     * Adds a node to the cluster and moves to it the entries it now owns.
+     *
+     * @param node The node to add.
+     */
+    public void addNode(ExamNode node) {
+        membershipLock.writeLock().lock();
+        try {
+            addNodeLocked(node);
+        } finally {
+            membershipLock.writeLock().unlock();
+        }
+    }
+
+    private void addNodeLocked(ExamNode node) {
+        ConsistentHashRing next = ring.withNode(node.getNodeId());
+        nodes.put(node.getNodeId(), node); // Not reachable through the current ring yet
+        for (ExamNode existing : nodes.values()) {
+            if (existing != node) {
+                copyMisplaced(existing, next);
+            }
+        }
+        ring = next;
+        for (ExamNode existing : nodes.values()) {
+            if (existing != node) {
+                migrateMisplaced(existing); // Drops the copied entries
+            }
+        }
+        System.out.println("Node joined cluster: " + node.getNodeId() + " (" + nodes.size() + " nodes)");
+    }
+
+    /**
+     * Removes a node from the cluster, handing all of its entries to their new owners.
+     *
+     * @param nodeId The ID of the node to remove.
+     * @return The removed node, or null if it was not part of the cluster.
+     */
+    public ExamNode removeNode(String nodeId) {
+        membershipLock.writeLock().lock();
+        try {
+            return removeNodeLocked(nodeId);
+        } finally {
+            membershipLock.writeLock().unlock();
+        }
+    }
+
+    private ExamNode removeNodeLocked(String nodeId) {
+        ExamNode node = nodes.get(nodeId);
+        if (node == null) {
+            return null;
+        }
+        ConsistentHashRing next = ring.withoutNode(nodeId);
+        if (next.isEmpty()) {
+            throw new IllegalStateException("Cannot remove the last node of the cluster.");
+        }
+        copyMisplaced(node, next);
+        ring = next;
+        migrateMisplaced(node);
+        nodes.remove(nodeId);
+        System.out.println("Node left cluster: " + nodeId + " (" + nodes.size() + " nodes)");
+        return node;
+    }
+
+    /**
+     * Gets the node that owns a partition key.
+     *
+     * @param key Username, exam ID or session ID.
+     * @return The owning node.
+     */
+    public ExamNode nodeFor(String key) {
+        return ownerIn(ring, key);
+    }
+
+    private ExamNode ownerIn(ConsistentHashRing placement, String key) {
+        String nodeId = placement.nodeFor(key);
+        if (nodeId == null) {
+            throw new IllegalStateException("Cluster has no nodes.");
+        }
+        return nodes.get(nodeId);
+    }
+
+    public AdminUser createAdmin(String username, String password) {
+        return withStableMembership(() -> nodeFor(username).getExamSystem().createAdmin(username, password));
+    }
+
+    public StudentUser createStudent(String username, String password) {
+        return withStableMembership(() -> nodeFor(username).getExamSystem().createStudent(username, password));
+    }
+
+    /**
+     * Authenticates a user on the node that owns the username.
+     *
+     * @param username Username to look up.
+     * @param password Password to check.
+     * @return The logged in User, or null if the credentials are invalid.
+     */
+    public User authenticate(String username, String password) {
+        return nodeFor(username).getExamSystem().authenticate(username, password);
+    }
+
+    /**
+     * Creates an exam and places it on the node that owns its ID.
+     *
+     * @param admin        The admin creating the exam.
+     * @param examName     Name of the exam.
+     * @param duration     Duration of the exam.
+     * @param questionPool QuestionPool to use for the exam (can be null).
+     * @return The created Exam.
+     */
+    public Exam createExam(AdminUser admin, String examName, Duration duration, QuestionPool questionPool) {
+        return withStableMembership(() -> {
+            Exam exam = admin.createExam(examName, duration, questionPool); // Registered with the admin's node first
+            ExamNode owner = nodeFor(exam.getExamId());
+            owner.getExamSystem().addExam(exam);
+            for (ExamNode node : nodes.values()) {
+                if (node != owner) {
+                    node.getExamSystem().removeExam(exam.getExamId());
+                }
+            }
+            return exam;
+        });
+    }
+
+    public Exam getExamById(String examId) {
+        return nodeFor(examId).getExamSystem().getExamById(examId);
+    }
+
+    /**
+     * Gets all exams across the cluster.
+     *
+     * @return List of all exams.
+     */
+    public List<Exam> getAllExams() {
+        List<Exam> exams = new ArrayList<>();
+        for (ExamNode node : nodes.values()) {
+            exams.addAll(node.getExamSystem().getAllExams());
+        }
+        return exams;
+    }
+
+    /**
+     * Starts an exam for a student and registers the session on the node that owns the session ID.
+     *
+     * @param student The student taking the exam.
+     * @param examId  The ID of the exam.
+     * @return The created ExamSession, or null if the exam does not exist or cannot be started.
+     */
+    public ExamSession startExam(StudentUser student, String examId) {
+        Exam exam = getExamById(examId);
+        if (exam == null) {
+            System.out.println("Exam not found in cluster: " + examId);
+            return null;
+        }
+        return withStableMembership(() -> {
+            ExamSession session = student.startExam(exam);
+            if (session != null) {
+                nodeFor(session.getSessionId()).getExamSystem().registerSession(session);
+            }
+            return session;
+        });
+    }
+
+    public ExamSession getSessionById(String sessionId) {
+        return nodeFor(sessionId).getExamSystem().getSessionById(sessionId);
+    }
+
+    /**
+     * Corrects the answer key of a question and regrades the results of every node, since exams and sessions that
+     * used the question can live on any node. Membership changes wait until the regrade is done.
+     *
+     * @param question      The question.
+     * @param correctAnswer The correct answer.
+     * @param reason        Why the key was corrected (recorded in the audit trail).
+     * @return The results whose score changed.
+     */
+    public List<ExamResult> correctAnswerKey(ObjectiveQuestion question, String correctAnswer, String reason) {
+        return withStableMembership(() -> {
+            List<ExamResult> revised = new ArrayList<>();
+            for (ExamNode node : nodes.values()) {
+                revised.addAll(node.getExamSystem().getRegradeEngine().correctAnswerKey(question, correctAnswer, reason));
+            }
+            return revised;
+        });
+    }
+
+    /**
+     * Voids a question and regrades the results of every node.
+     *
+     * @param question The question.
+     * @param reason   Why the question was voided (recorded in the audit trail).
+     * @return The results whose score changed.
+     */
+    public List<ExamResult> voidQuestion(Question question, String reason) {
+        return withStableMembership(() -> {
+            List<ExamResult> revised = new ArrayList<>();
+            for (ExamNode node : nodes.values()) {
+                revised.addAll(node.getExamSystem().getRegradeEngine().voidQuestion(question, reason));
+            }
+            return revised;
+        });
+    }
+
+    public int getNodeCount() {
+        return nodes.size();
+    }
+
+    /**
+     * Runs a call that places entries by the current ring, holding off membership changes until it returns.
+     */
+    private <T> T withStableMembership(Supplier<T> call) {
+        Lock lock = membershipLock.readLock();
+        lock.lock();
+        try {
+            return call.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Copies the entries of a node that another ring places elsewhere to their owners in that ring, keeping them
+     * on the node as well.
+     *
+     * @param source    The node to copy from.
+     * @param placement The ring about to be published.
+     */
+    private void copyMisplaced(ExamNode source, ConsistentHashRing placement) {
+        ExamManagementSystem from = source.getExamSystem();
+        for (User user : from.getAllUsers()) {
+            ExamNode owner = ownerIn(placement, user.getUsername());
+            if (owner != source) {
+                owner.getExamSystem().addUser(user);
+            }
+        }
+        for (Exam exam : from.getAllExams()) {
+            ExamNode owner = ownerIn(placement, exam.getExamId());
+            if (owner != source) {
+                owner.getExamSystem().addExam(exam);
+            }
+        }
+        for (ExamSession session : from.getAllSessions()) {
+            ExamNode owner = ownerIn(placement, session.getSessionId());
+            if (owner != source) {
+                owner.getExamSystem().registerSession(session);
+            }
+        }
+    }
+
+    private void migrateMisplaced(ExamNode source) {
+        ExamManagementSystem from = source.getExamSystem();
+        int moved = 0;
+        for (User user : from.getAllUsers()) {
+            ExamNode owner = nodeFor(user.getUsername());
+            if (owner != source) {
+                owner.getExamSystem().addUser(user);
+                from.removeUser(user.getUsername());
+                moved++;
+            }
+        }
+        for (Exam exam : from.getAllExams()) {
+            ExamNode owner = nodeFor(exam.getExamId());
+            if (owner != source) {
+                owner.getExamSystem().addExam(exam);
+                from.removeExam(exam.getExamId());
+                moved++;
+            }
+        }
+        for (ExamSession session : from.getAllSessions()) {
+            ExamNode owner = nodeFor(session.getSessionId());
+            if (owner != source) {
+                owner.getExamSystem().registerSession(session);
+                from.removeSession(session.getSessionId());
+                moved++;
+            }
+        }
+        if (moved > 0) {
+            System.out.println("Moved " + moved + " entries off node " + source.getNodeId());
+        }
+    }
+}
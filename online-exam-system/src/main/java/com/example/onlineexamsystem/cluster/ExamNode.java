@@ -0,0 +1,30 @@
+package com.example.onlineexamsystem.cluster;
+
+import com.example.onlineexamsystem.service.ExamManagementSystem;
+
+/**
+ * A cluster member: one ExamManagementSystem holding the partition of users, exams and sessions it owns.
+ */
+public class ExamNode {
+    private final String nodeId;
+    private final ExamManagementSystem examSystem;
+
+    /**
+     * Constructor for ExamNode.
+     *
+     * @param nodeId     Unique ID of the node.
+     * @param examSystem The ExamManagementSystem holding this node's partition.
+     */
+    public ExamNode(String nodeId, ExamManagementSystem examSystem) {
+        this.nodeId = nodeId;
+        this.examSystem = examSystem;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public ExamManagementSystem getExamSystem() {
+        return examSystem;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.onlineexamsystem.id;
+
+/**
+ * Source of unique 64-bit IDs for users, exams, pools, sessions and results.
+ *
+ * <p>Implementations must be safe to call from many threads at once. IDs are turned into strings with
+ * {@link Ids#format(long)} only when an entity's ID is actually read.
+ */
+public interface IdGenerator {
+    /**
+     * Generates a new ID.
+     *
+     * @return A non-negative ID that this generator has not returned before.
+     */
+    long nextId();
+}
@@ -0,0 +1,54 @@
+package com.example.onlineexamsystem.id;
+
+/**
+ * Holder of the ID generator used by entity constructors, and the string form of IDs.
+ *
+ * <p>String IDs are 13 characters of Crockford base 32, fixed width, so they sort in the same order as the numbers
+ * (for time-ordered IDs, by creation time).
+ */
+public final class Ids {
+    private static final char[] DIGITS = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int LENGTH = 13; // 13 * 5 bits >= 64 bits
+
+    private static volatile IdGenerator generator = new TimeOrderedIdGenerator(0);
+
+    private Ids() {
+    }
+
+    public static IdGenerator getGenerator() {
+        return generator;
+    }
+
+    /**
+     * Replaces the ID generator, e.g. with one per cluster node. Call it before creating entities.
+     *
+     * @param idGenerator The generator to use from now on.
+     */
+    public static void setGenerator(IdGenerator idGenerator) {
+        generator = idGenerator;
+    }
+
+    /**
+     * Generates a new ID with the current generator.
+     *
+     * @return The ID.
+     */
+    public static long next() {
+        return generator.nextId();
+    }
+
+    /**
+     * Formats an ID as its string form.
+     *
+     * @param id The ID.
+     * @return 13-character base 32 string.
+     */
+    public static String format(long id) {
+        char[] chars = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            chars[i] = DIGITS[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.onlineexamsystem.id;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Time-ordered 64-bit IDs generated without locks or shared random state.
+ *
+ * <p>Layout, from the most significant bit: a zero sign bit, 41 bits of milliseconds since 2024-01-01 UTC (about 69
+ * years), 5 bits of node ID, 8 bits of lane and 10 bits of sequence. Each thread is given a lane the first time it
+ * generates an ID, and each lane keeps its own clock in a padded slot, so threads do not touch each other's cache
+ * lines. Within a lane the (time, sequence) pair only moves forward: more than 1024 IDs in a millisecond borrow the
+ * next millisecond, and a clock that steps back is ignored until it catches up. Threads that end up on the same lane
+ * (more than 256 threads) share its slot by compare-and-set, so IDs stay unique.
+ */
+public class TimeOrderedIdGenerator implements IdGenerator {
+    public static final long EPOCH_MILLIS = 1704067200000L; // 2024-01-01T00:00:00Z
+    private static final int SEQUENCE_BITS = 10;
+    private static final int LANE_BITS = 8;
+    private static final int NODE_BITS = 5;
+    private static final int LANES = 1 << LANE_BITS;
+    private static final int PADDING = 8; // Longs per slot, one cache line
+    private static final AtomicInteger NEXT_LANE = new AtomicInteger();
+    private static final ThreadLocal<int[]> LANE = ThreadLocal.withInitial(
+            () -> new int[] {NEXT_LANE.getAndIncrement() & (LANES - 1)});
+
+    private final long nodeBits;
+    private final AtomicLongArray clocks = new AtomicLongArray(LANES * PADDING); // Per lane: millis << 10 | sequence
+
+    /**
+     * Constructor for TimeOrderedIdGenerator.
+     *
+     * @param nodeId ID of this node (0 to 31), so that nodes of a cluster generate distinct IDs.
+     */
+    public TimeOrderedIdGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId >= 1 << NODE_BITS) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + ((1 << NODE_BITS) - 1) + ".");
+        }
+        this.nodeBits = (long) nodeId << (LANE_BITS + SEQUENCE_BITS);
+    }
+
+    @Override
+    public long nextId() {
+        int lane = LANE.get()[0];
+        int slot = lane * PADDING;
+        long clock;
+        while (true) {
+            long last = clocks.get(slot);
+            clock = Math.max((System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS, last + 1);
+            if (clocks.compareAndSet(slot, last, clock)) {
+                break;
+            }
+        }
+        long millis = clock >>> SEQUENCE_BITS;
+        long sequence = clock & ((1 << SEQUENCE_BITS) - 1);
+        return millis << (NODE_BITS + LANE_BITS + SEQUENCE_BITS) | nodeBits | (long) lane << SEQUENCE_BITS | sequence;
+    }
+
+    /**
+     * Gets the creation time encoded in an ID from this generator.
+     *
+     * @param id The ID.
+     * @return Milliseconds since the Unix epoch.
+     */
+    public static long getTimestampMillis(long id) {
+        return (id >>> (NODE_BITS + LANE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+}
@@ -0,0 +1,379 @@
+package com.example.onlineexamsystem.model;
+
+import com.example.onlineexamsystem.service.ExamSession;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Off-heap answers of one exam: a row per session with a fixed 8-byte cell per question the session drew.
+ *
+ * <p>A row is reserved when the session starts and sized by the session's question count, not by the exam's pool:
+ * after a two-cell header (published flag, question count) it holds one question-code cell per position, then one
+ * answer cell per position. Question codes index the questions the matrix has seen so far, so a row stays small
+ * even when sessions draw from a large bank. An answer cell is 0 when unanswered, the option number (1-based) for an
+ * answer that matches an option of an objective question, or a negated reference into an off-heap text arena for
+ * any other text (essays).
+ *
+ * <p>Rows live in direct buffers allocated in blocks of about {@code rowsPerBlock} rows, so the heap holds a handful
+ * of buffer objects instead of a string per answer. Option answers are written into the row as they are accepted;
+ * free text is written when the session is submitted, since every revision would otherwise leave its old text in
+ * the append-only arena. Submitting rewrites the row from the sealed answers and publishes it by setting the header
+ * with release semantics; graders scan rows sequentially and skip rows that are not published yet.
+ */
+public class AnswerMatrix {
+    private static final VarHandle CELL = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final long ROW_PUBLISHED = 1;
+    private static final int HEADER_CELLS = 2; // Published flag, question count
+
+    private final int rowsPerBlock;
+    private final Map<Question, Integer> codes = new ConcurrentHashMap<>();
+    private volatile Question[] questionsByCode = new Question[16]; // Grown under this
+    private volatile String[][] optionsByCode = new String[16][];    // Options of objective questions (null otherwise)
+    private volatile ByteBuffer[] blocks = new ByteBuffer[0];
+    private int blockUsed;                                           // Bytes used in the last block, guarded by this
+    private volatile long[] rowOffsets = new long[64];               // Block index << 32 | byte offset
+    private volatile ExamSession[] rowSessions = new ExamSession[64];
+    private volatile int rowCount = 0;
+    private final TextArena texts = new TextArena();
+
+    /**
+     * Constructor for AnswerMatrix.
+     *
+     * @param rowsPerBlock Rows per off-heap block, estimated from the size of the row that opens the block.
+     */
+    public AnswerMatrix(int rowsPerBlock) {
+        this.rowsPerBlock = Math.max(1, rowsPerBlock);
+    }
+
+    /**
+     * Gets the number of rows reserved so far (some may not be published yet).
+     *
+     * @return Row count.
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Gets the off-heap memory in use, rows and texts included.
+     *
+     * @return Bytes allocated off-heap.
+     */
+    public long getOffHeapBytes() {
+        long bytes = texts.getAllocatedBytes();
+        for (ByteBuffer block : blocks) {
+            bytes += block.capacity();
+        }
+        return bytes;
+    }
+
+    /**
+     * Reserves a row for a session that is starting.
+     *
+     * @param session       The session.
+     * @param questionCount Number of questions the session can receive (the test length, for adaptive sessions).
+     * @return The row.
+     */
+    public synchronized int reserveRow(ExamSession session, int questionCount) {
+        int rowBytes = (HEADER_CELLS + 2 * questionCount) * Long.BYTES;
+        ByteBuffer[] current = blocks;
+        if (current.length == 0 || current[current.length - 1].capacity() - blockUsed < rowBytes) {
+            // Zero-filled on allocation, so unwritten cells read as unanswered
+            current = Arrays.copyOf(current, current.length + 1);
+            long blockBytes = Math.min(Integer.MAX_VALUE, (long) rowsPerBlock * rowBytes);
+            current[current.length - 1] = ByteBuffer.allocateDirect((int) blockBytes);
+            blocks = current;
+            blockUsed = 0;
+        }
+        int offset = blockUsed;
+        blockUsed += rowBytes;
+        CELL.set(current[current.length - 1], offset + Long.BYTES, (long) questionCount);
+        int row = rowCount;
+        if (row == rowOffsets.length) {
+            rowOffsets = Arrays.copyOf(rowOffsets, row * 2);
+            rowSessions = Arrays.copyOf(rowSessions, row * 2);
+        }
+        rowOffsets[row] = ((long) (current.length - 1) << 32) | offset;
+        rowSessions[row] = session;
+        rowCount = row + 1; // Publishes the entries above to readers that see the new count
+        return row;
+    }
+
+    /**
+     * Writes an answer that was just accepted. Only option answers are stored now; free text is stored on submit.
+     *
+     * @param row      The session's row.
+     * @param position Position of the question in the session.
+     * @param question The question.
+     * @param answer   The answer.
+     */
+    public void writeAnswer(int row, int position, Question question, String answer) {
+        int code = codeOf(question);
+        long option = optionCode(code, answer);
+        ByteBuffer block = blockOf(row);
+        int base = offsetOf(row);
+        CELL.set(block, idCell(base, position), (long) code + 1);
+        CELL.setRelease(block, answerCell(base, questionCount(block, base), position), option);
+    }
+
+    /**
+     * Writes the sealed answers of a submitted session into its row and publishes the row.
+     *
+     * @param row       The session's row.
+     * @param questions The questions of the session.
+     * @param answers   The answers, aligned with questions (null when unanswered).
+     */
+    public void publishRow(int row, List<Question> questions, String[] answers) {
+        ByteBuffer block = blockOf(row);
+        int base = offsetOf(row);
+        int count = questionCount(block, base);
+        for (int i = 0; i < Math.min(count, questions.size()); i++) {
+            int code = codeOf(questions.get(i));
+            CELL.set(block, idCell(base, i), (long) code + 1);
+            CELL.set(block, answerCell(base, count, i), answers[i] == null ? 0L : encode(code, answers[i]));
+        }
+        CELL.setRelease(block, base, ROW_PUBLISHED); // Cells become visible with the header
+    }
+
+    /**
+     * Checks whether a row holds the sealed answers of its session.
+     *
+     * @param row The row.
+     * @return True once the session was submitted.
+     */
+    public boolean isPublished(int row) {
+        return (long) CELL.getAcquire(blockOf(row), offsetOf(row)) == ROW_PUBLISHED;
+    }
+
+    /**
+     * Gets the session of a published row.
+     *
+     * @param row The row.
+     * @return The session, or null if the row is not published yet.
+     */
+    public ExamSession getSession(int row) {
+        return isPublished(row) ? rowSessions[row] : null;
+    }
+
+    /**
+     * Gets the number of question positions in a row.
+     *
+     * @param row The row.
+     * @return Question count.
+     */
+    public int getQuestionCount(int row) {
+        return questionCount(blockOf(row), offsetOf(row));
+    }
+
+    /**
+     * Gets the question at a position of a row.
+     *
+     * @param row      A published row.
+     * @param position The position.
+     * @return The question, or null if the session never received a question there.
+     */
+    public Question getQuestion(int row, int position) {
+        long code = (long) CELL.get(blockOf(row), idCell(offsetOf(row), position));
+        return code == 0 ? null : questionsByCode[(int) code - 1];
+    }
+
+    /**
+     * Gets the option chosen at a position, without decoding text.
+     *
+     * @param row      A published row.
+     * @param position The position.
+     * @return 1-based option number, 0 if unanswered, -1 if the answer is free text.
+     */
+    public int getOptionCode(int row, int position) {
+        long cell = answer(row, position);
+        return cell < 0 ? -1 : (int) cell;
+    }
+
+    /**
+     * Gets the answer at a position.
+     *
+     * @param row      A published row.
+     * @param position The position.
+     * @return The answer, or null if unanswered.
+     */
+    public String getAnswer(int row, int position) {
+        long cell = answer(row, position);
+        if (cell == 0) {
+            return null;
+        }
+        if (cell < 0) {
+            return texts.read(-cell - 1);
+        }
+        long code = (long) CELL.get(blockOf(row), idCell(offsetOf(row), position));
+        return optionsByCode[(int) code - 1][(int) cell - 1];
+    }
+
+    /**
+     * Reads the answers of a published row, in the order the session received its questions.
+     *
+     * @param row The row.
+     * @return Map of question to answer, answered questions only.
+     */
+    public Map<Question, String> readRow(int row) {
+        Map<Question, String> answers = new LinkedHashMap<>();
+        for (int position = 0; position < getQuestionCount(row); position++) {
+            String answer = getAnswer(row, position);
+            if (answer != null) {
+                answers.put(getQuestion(row, position), answer);
+            }
+        }
+        return answers;
+    }
+
+    /**
+     * Counts how often each option of a question was chosen, scanning the published rows sequentially.
+     *
+     * @param question An objective question.
+     * @return Counts indexed by option code (index 0 counts free-text answers that match no option).
+     */
+    public long[] countOptionChoices(Question question) {
+        Integer code = codes.get(question);
+        String[] options = code == null ? null : optionsByCode[code];
+        long[] counts = new long[options == null ? 1 : options.length + 1];
+        if (code == null) {
+            return counts;
+        }
+        int rows = rowCount;
+        for (int row = 0; row < rows; row++) {
+            ByteBuffer block = blockOf(row);
+            int base = offsetOf(row);
+            if ((long) CELL.getAcquire(block, base) != ROW_PUBLISHED) {
+                continue;
+            }
+            int count = questionCount(block, base);
+            for (int position = 0; position < count; position++) {
+                if ((long) CELL.get(block, idCell(base, position)) == code + 1) {
+                    long cell = (long) CELL.get(block, answerCell(base, count, position));
+                    if (cell > 0) {
+                        counts[(int) cell]++;
+                    } else if (cell < 0) {
+                        counts[0]++;
+                    }
+                    break;
+                }
+            }
+        }
+        return counts;
+    }
+
+    private int codeOf(Question question) {
+        Integer code = codes.get(question);
+        return code != null ? code : register(question);
+    }
+
+    private synchronized int register(Question question) {
+        Integer code = codes.get(question);
+        if (code != null) {
+            return code;
+        }
+        int next = codes.size();
+        if (next == questionsByCode.length) {
+            optionsByCode = Arrays.copyOf(optionsByCode, next * 2);
+            questionsByCode = Arrays.copyOf(questionsByCode, next * 2);
+        }
+        if (question instanceof ObjectiveQuestion) {
+            optionsByCode[next] = ((ObjectiveQuestion) question).getOptions().toArray(new String[0]);
+        }
+        questionsByCode[next] = question;
+        codes.put(question, next); // Published after the arrays hold the question
+        return next;
+    }
+
+    private long answer(int row, int position) {
+        ByteBuffer block = blockOf(row);
+        int base = offsetOf(row);
+        return (long) CELL.getAcquire(block, answerCell(base, questionCount(block, base), position));
+    }
+
+    private long encode(int code, String answer) {
+        long option = optionCode(code, answer);
+        return option != 0 ? option : -texts.append(answer) - 1;
+    }
+
+    // 1-based option number matching the answer, or 0 if it matches none
+    private long optionCode(int code, String answer) {
+        String[] options = optionsByCode[code];
+        if (options != null) {
+            String trimmed = answer.trim();
+            for (int i = 0; i < options.length; i++) {
+                if (options[i].trim().equalsIgnoreCase(trimmed)) { // Same matching as ObjectiveQuestion
+                    return i + 1;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private ByteBuffer blockOf(int row) {
+        return blocks[(int) (rowOffsets[row] >>> 32)];
+    }
+
+    private int offsetOf(int row) {
+        return (int) rowOffsets[row];
+    }
+
+    private static int questionCount(ByteBuffer block, int base) {
+        return (int) (long) CELL.get(block, base + Long.BYTES);
+    }
+
+    private static int idCell(int base, int position) {
+        return base + (HEADER_CELLS + position) * Long.BYTES;
+    }
+
+    private static int answerCell(int base, int questionCount, int position) {
+        return base + (HEADER_CELLS + questionCount + position) * Long.BYTES;
+    }
+
+    /**
+     * Append-only UTF-8 text storage in direct buffers. A reference is the chunk index in the high 32 bits and the
+     * position of the length-prefixed text in the low 32 bits.
+     */
+    private static final class TextArena {
+        private static final int CHUNK_SIZE = 1 << 20;
+
+        private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+        private long allocatedBytes; // Guarded by this
+
+        synchronized long append(String text) {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer[] current = chunks;
+            ByteBuffer chunk = current.length == 0 ? null : current[current.length - 1];
+            if (chunk == null || chunk.remaining() < Integer.BYTES + bytes.length) {
+                chunk = ByteBuffer.allocateDirect(Math.max(CHUNK_SIZE, Integer.BYTES + bytes.length));
+                allocatedBytes += chunk.capacity();
+                current = Arrays.copyOf(current, current.length + 1);
+                current[current.length - 1] = chunk;
+                chunks = current;
+            }
+            int position = chunk.position();
+            chunk.putInt(bytes.length).put(bytes);
+            return ((long) (current.length - 1) << 32) | position;
+        }
+
+        String read(long reference) {
+            ByteBuffer chunk = chunks[(int) (reference >>> 32)];
+            int position = (int) reference;
+            byte[] bytes = new byte[chunk.getInt(position)];
+            chunk.get(position + Integer.BYTES, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        synchronized long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.onlineexamsystem.model;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact, immutable record of a completed exam session: IDs, the question order the student saw,
+ * the answers as plain strings in that order, and the score. Replaces the live ExamSession state once a
+ * session is submitted so the questions, answer map and timer can be released.
+ */
+public final class ArchivedSession {
+    private final String sessionId;
+    private final String studentId;
+    private final String examId;
+    private final String[] questionIds; // In the order presented to the student
+    private final String[] answers;     // Aligned with questionIds, null when unanswered
+    private final int score;
+    private final int totalMarks;
+    private final long startEpochMillis;
+    private final long endEpochMillis;
+
+    /**
+     * Constructor for ArchivedSession.
+     *
+     * @param sessionId        The ID of the session.
+     * @param studentId        The user ID of the student.
+     * @param examId           The ID of the exam.
+     * @param questionIds      Question IDs in presentation order.
+     * @param answers          Answers aligned with questionIds (null when unanswered).
+     * @param score            The score obtained.
+     * @param totalMarks       The total marks available.
+     * @param startEpochMillis Session start time.
+     * @param endEpochMillis   Session end time.
+     */
+    public ArchivedSession(String sessionId, String studentId, String examId, String[] questionIds, String[] answers,
+                           int score, int totalMarks, long startEpochMillis, long endEpochMillis) {
+        if (questionIds.length != answers.length) {
+            throw new IllegalArgumentException("Answers must be aligned with question IDs.");
+        }
+        this.sessionId = sessionId;
+        this.studentId = studentId;
+        this.examId = examId;
+        this.questionIds = questionIds.clone();
+        this.answers = answers.clone();
+        this.score = score;
+        this.totalMarks = totalMarks;
+        this.startEpochMillis = startEpochMillis;
+        this.endEpochMillis = endEpochMillis;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public String getStudentId() {
+        return studentId;
+    }
+
+    public String getExamId() {
+        return examId;
+    }
+
+    public int getQuestionCount() {
+        return questionIds.length;
+    }
+
+    public String getQuestionId(int index) {
+        return questionIds[index];
+    }
+
+    public String getAnswer(int index) {
+        return answers[index];
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getTotalMarks() {
+        return totalMarks;
+    }
+
+    public long getStartEpochMillis() {
+        return startEpochMillis;
+    }
+
+    public long getEndEpochMillis() {
+        return endEpochMillis;
+    }
+
+    /**
+     * Creates a copy of this record with a regraded score.
+     *
+     * @param newScore      The recomputed score.
+     * @param newTotalMarks The recomputed total marks.
+     * @return The updated record.
+     */
+    public ArchivedSession withScore(int newScore, int newTotalMarks) {
+        return new ArchivedSession(sessionId, studentId, examId, questionIds, answers, newScore, newTotalMarks,
+                startEpochMillis, endEpochMillis);
+    }
+
+    /**
+     * Writes the record in a compact binary form.
+     *
+     * @param out The stream to write to.
+     * @throws IOException If writing fails.
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeUTF(sessionId);
+        out.writeUTF(studentId);
+        out.writeUTF(examId);
+        out.writeInt(score);
+        out.writeInt(totalMarks);
+        out.writeLong(startEpochMillis);
+        out.writeLong(endEpochMillis);
+        out.writeInt(questionIds.length);
+        for (int i = 0; i < questionIds.length; i++) {
+            out.writeUTF(questionIds[i]);
+            out.writeBoolean(answers[i] != null);
+            if (answers[i] != null) {
+                writeLongUtf(out, answers[i]); // Essays can exceed writeUTF's 64KB limit
+            }
+        }
+    }
+
+    /**
+     * Reads a record written by {@link #writeTo(DataOutputStream)}.
+     *
+     * @param in The stream to read from.
+     * @return The record.
+     * @throws IOException If reading fails.
+     */
+    public static ArchivedSession readFrom(DataInputStream in) throws IOException {
+        String sessionId = in.readUTF();
+        String studentId = in.readUTF();
+        String examId = in.readUTF();
+        int score = in.readInt();
+        int totalMarks = in.readInt();
+        long start = in.readLong();
+        long end = in.readLong();
+        int count = in.readInt();
+        String[] questionIds = new String[count];
+        String[] answers = new String[count];
+        for (int i = 0; i < count; i++) {
+            questionIds[i] = in.readUTF();
+            answers[i] = in.readBoolean() ? readLongUtf(in) : null;
+        }
+        return new ArchivedSession(sessionId, studentId, examId, questionIds, answers, score, totalMarks, start, end);
+    }
+
+    private static void writeLongUtf(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readLongUtf(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.onlineexamsystem.model;
+
+/**
+ * Decides which attempt counts as a student's result when an exam allows several attempts.
+ */
+public enum AttemptPolicy {
+    /** The highest-scoring submitted attempt counts. */
+    BEST_SCORE,
+    /** The most recently submitted attempt counts. */
+    LAST_SCORE
+}
@@ -0,0 +1,234 @@
+package com.example.onlineexamsystem.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Compiled form of an {@link ExamBlueprint} over the candidates of a snapshot, drawing a valid paper without retries.
+ *
+ * <p>Each rule gets a bucket of the candidates it matches, grouped by marks. For an exact total, a table per rule
+ * counts the ways to choose n questions worth s marks from its groups, and a table across rules counts the ways the
+ * remaining rules can make up the remaining marks. Sampling walks those tables: it picks the marks of each rule, then
+ * how many questions of each marks group, in proportion to the number of papers that can still be completed, and
+ * draws the questions of a group with Floyd's algorithm. Every valid paper is equally likely. Counts are kept as
+ * logarithms so that large pools do not overflow.
+ */
+final class BlueprintSampler {
+    private static final double NONE = Double.NEGATIVE_INFINITY; // Log of zero ways
+
+    private final RuleBucket[] buckets;
+    private final int targetMarks;         // Marks the pool questions must add up to, -1 if unconstrained
+    private final double[][] suffixWays;   // [r][s]: log ways rules r.. make up s marks
+    private final double[] logFactorials;
+    private final String unsatisfiedReason;
+
+    /**
+     * Constructor for BlueprintSampler.
+     *
+     * @param blueprint  The blueprint.
+     * @param candidates Pool questions a session may draw (voided questions are skipped).
+     * @param fixedMarks Marks of the questions every session receives, counted towards the total.
+     */
+    BlueprintSampler(ExamBlueprint blueprint, Question[] candidates, int fixedMarks) {
+        List<ExamBlueprint.Rule> rules = blueprint.getRules();
+        List<List<Question>> matched = new ArrayList<>(rules.size());
+        for (int r = 0; r < rules.size(); r++) {
+            matched.add(new ArrayList<>());
+        }
+        int largestBucket = 0;
+        for (Question question : candidates) {
+            if (question.isVoided()) {
+                continue;
+            }
+            for (int r = 0; r < rules.size(); r++) {
+                if (rules.get(r).matches(question)) {
+                    matched.get(r).add(question);
+                    largestBucket = Math.max(largestBucket, matched.get(r).size());
+                    break; // First matching rule only
+                }
+            }
+        }
+        this.targetMarks = blueprint.hasTotalMarks() ? blueprint.getTotalMarks() - fixedMarks : -1;
+        this.logFactorials = new double[largestBucket + 1];
+        for (int n = 1; n <= largestBucket; n++) {
+            logFactorials[n] = logFactorials[n - 1] + Math.log(n);
+        }
+        this.buckets = new RuleBucket[rules.size()];
+        String reason = null;
+        for (int r = 0; r < buckets.length; r++) {
+            buckets[r] = new RuleBucket(rules.get(r).getCount(), matched.get(r));
+            if (reason == null && matched.get(r).size() < rules.get(r).getCount()) {
+                reason = "only " + matched.get(r).size() + " pool questions match rule \"" + rules.get(r) + "\"";
+            }
+        }
+        if (targetMarks < 0) {
+            this.suffixWays = null;
+            if (reason == null && blueprint.hasTotalMarks()) {
+                reason = "the exam's own questions are worth more than " + blueprint.getTotalMarks() + " marks";
+            }
+        } else {
+            this.suffixWays = new double[buckets.length + 1][targetMarks + 1];
+            Arrays.fill(suffixWays[buckets.length], NONE);
+            suffixWays[buckets.length][0] = 0;
+            for (int r = buckets.length - 1; r >= 0; r--) {
+                double[] ruleWays = buckets[r].ways[0][buckets[r].count];
+                for (int s = 0; s <= targetMarks; s++) {
+                    double ways = NONE;
+                    for (int marks = 0; marks <= s; marks++) {
+                        ways = logAdd(ways, ruleWays[marks] + suffixWays[r + 1][s - marks]);
+                    }
+                    suffixWays[r][s] = ways;
+                }
+            }
+            if (reason == null && suffixWays[0][targetMarks] == NONE) {
+                reason = "no combination of matching questions is worth exactly " + blueprint.getTotalMarks() + " marks";
+            }
+        }
+        this.unsatisfiedReason = reason;
+    }
+
+    public boolean isSatisfiable() {
+        return unsatisfiedReason == null;
+    }
+
+    /**
+     * Gets why the blueprint cannot be satisfied.
+     *
+     * @return The reason, or null if it can.
+     */
+    public String getUnsatisfiedReason() {
+        return unsatisfiedReason;
+    }
+
+    /**
+     * Draws a paper, appending its questions.
+     *
+     * @param random Source of randomness.
+     * @param paper  List the drawn questions are added to.
+     */
+    public void sample(Random random, List<Question> paper) {
+        if (targetMarks < 0) {
+            for (RuleBucket bucket : buckets) {
+                ExamSnapshot.sampleDistinct(bucket.questions, bucket.count, random, paper);
+            }
+            return;
+        }
+        int remaining = targetMarks;
+        for (int r = 0; r < buckets.length; r++) {
+            RuleBucket bucket = buckets[r];
+            double[] ruleWays = bucket.ways[0][bucket.count];
+            double total = suffixWays[r][remaining];
+            // Marks of this rule, weighted by the papers the other rules can still complete
+            double u = random.nextDouble();
+            int marks = -1;
+            for (int s = 0; s <= remaining; s++) {
+                double weight = ruleWays[s] + suffixWays[r + 1][remaining - s];
+                if (weight == NONE) {
+                    continue;
+                }
+                marks = s;
+                u -= Math.exp(weight - total);
+                if (u < 0) {
+                    break;
+                }
+            }
+            remaining -= marks;
+            int count = bucket.count;
+            for (int g = 0; g < bucket.groups.length; g++) {
+                Question[] group = bucket.groups[g];
+                int groupMarks = bucket.groupMarks[g];
+                double groupTotal = bucket.ways[g][count][marks];
+                u = random.nextDouble();
+                int take = -1;
+                for (int x = 0; x <= Math.min(group.length, count) && x * groupMarks <= marks; x++) {
+                    double weight = logBinomial(group.length, x) + bucket.ways[g + 1][count - x][marks - x * groupMarks];
+                    if (weight == NONE) {
+                        continue;
+                    }
+                    take = x;
+                    u -= Math.exp(weight - groupTotal);
+                    if (u < 0) {
+                        break;
+                    }
+                }
+                ExamSnapshot.sampleDistinct(group, take, random, paper);
+                count -= take;
+                marks -= take * groupMarks;
+            }
+        }
+    }
+
+    private double logBinomial(int n, int k) {
+        return logFactorials[n] - logFactorials[k] - logFactorials[n - k];
+    }
+
+    private static double logAdd(double a, double b) {
+        if (a == NONE) {
+            return b;
+        }
+        if (b == NONE) {
+            return a;
+        }
+        double max = Math.max(a, b);
+        return max + Math.log1p(Math.exp(Math.min(a, b) - max));
+    }
+
+    /**
+     * The candidates matching one rule, grouped by marks, with their ways table when the total is constrained.
+     */
+    private final class RuleBucket {
+        final int count;
+        final Question[] questions;
+        final Question[][] groups;
+        final int[] groupMarks;
+        final double[][][] ways; // [g][n][s]: log ways to choose n questions worth s marks from groups g..
+
+        RuleBucket(int count, List<Question> matched) {
+            this.count = count;
+            this.questions = matched.toArray(new Question[0]);
+            Map<Integer, List<Question>> byMarks = new LinkedHashMap<>();
+            for (Question question : matched) {
+                if (targetMarks < 0 || (question.getMarks() >= 0 && question.getMarks() <= targetMarks)) {
+                    byMarks.computeIfAbsent(question.getMarks(), m -> new ArrayList<>()).add(question);
+                }
+            }
+            this.groups = new Question[byMarks.size()][];
+            this.groupMarks = new int[byMarks.size()];
+            int g = 0;
+            for (Map.Entry<Integer, List<Question>> entry : byMarks.entrySet()) {
+                groupMarks[g] = entry.getKey();
+                groups[g++] = entry.getValue().toArray(new Question[0]);
+            }
+            this.ways = targetMarks < 0 ? null : buildWays();
+        }
+
+        private double[][][] buildWays() {
+            double[][][] table = new double[groups.length + 1][count + 1][targetMarks + 1];
+            for (double[][] level : table) {
+                for (double[] row : level) {
+                    Arrays.fill(row, NONE);
+                }
+            }
+            table[groups.length][0][0] = 0;
+            for (int g = groups.length - 1; g >= 0; g--) {
+                for (int n = 0; n <= count; n++) {
+                    for (int s = 0; s <= targetMarks; s++) {
+                        double total = NONE;
+                        for (int x = 0; x <= Math.min(groups[g].length, n) && x * groupMarks[g] <= s; x++) {
+                            double rest = table[g + 1][n - x][s - x * groupMarks[g]];
+                            if (rest != NONE) {
+                                total = logAdd(total, logBinomial(groups[g].length, x) + rest);
+                            }
+                        }
+                        table[g][n][s] = total;
+                    }
+                }
+            }
+            return table;
+        }
+    }
+}
@@ -1,27 +1,55 @@
 package com.example.onlineexamsystem.model;
 
+import com.example.onlineexamsystem.adaptive.AdaptiveItemBank;
+import com.example.onlineexamsystem.id.Ids;
+import com.example.onlineexamsystem.service.AnswerAutosave;
+import com.example.onlineexamsystem.service.ExamScheduler;
 import com.example.onlineexamsystem.service.ExamSession;
+import com.example.onlineexamsystem.service.GradingPipeline;
+import com.example.onlineexamsystem.service.SessionArchive;
 import com.example.onlineexamsystem.user.AdminUser;
 
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Represents an Exam, containing questions, duration, and settings.
+ *
+ * <p>The questions and settings below are the editable draft. Publishing compiles them into an immutable
+ * {@link ExamSnapshot} that sessions read without locking; edits made after publication compile a new version.
  */
 public class Exam {
-    private final String examId;
+    private final long id;
+    private String examId; // String form, formatted on first use
     private final String examName;
     private final Duration duration;
     private final AdminUser creator;
     private final QuestionPool questionPool; // Optional question pool to draw questions from
-    private final List<Question> questions = new ArrayList<>(); // Specific questions added to the exam
+    private final List<Question> questions = new ArrayList<>(); // Specific questions added to the exam, guarded by this
     private int randomQuestionCount = 0; // Number of random questions to pick from the pool
-    private boolean isPublished = false;
-    private final List<ExamSession> examSessions = new ArrayList<>(); // Track exam sessions for this exam
+    private ExamBlueprint blueprint; // Replaces randomQuestionCount when set
+    private volatile boolean isPublished = false;
+    private volatile ExamSnapshot snapshot; // Current compiled version, null until published
+    private int maxAttempts = 1;
+    private AttemptPolicy attemptPolicy = AttemptPolicy.BEST_SCORE;
+    private int adaptiveTestLength = 0; // Non-zero switches sessions to adaptive item selection from the pool
+    private final ScoreDistribution scoreDistribution = new ScoreDistribution(); // Updated on each submission
+    private SessionArchive sessionArchive; // Optional archive that completed sessions are compacted into
+    private AnswerAutosave answerAutosave; // Optional autosave for answers given in this exam's sessions
+    private volatile AnswerMatrix answerMatrix; // Optional off-heap store for submitted answers
+    private volatile ExamScheduler scheduler; // Optional start-slot admission, null admits anyone at any time
+    private volatile GradingPipeline gradingPipeline; // Optional, null grades timed-out sessions on the timer thread
+    private final Queue<ExamSession> examSessions = new ConcurrentLinkedQueue<>(); // Track exam sessions for this exam (sessions start concurrently)
+    // Question ID -> sessions that drew it from the pool (fixed questions are served to every session, so not indexed)
+    private final Map<String, Queue<ExamSession>> sessionsByDrawnQuestion = new ConcurrentHashMap<>();
 
 
     /**
@@ -33,7 +61,7 @@ public class Exam {
      * @param questionPool  QuestionPool to use for random questions (optional).
      */
     public Exam(String examName, Duration duration, AdminUser creator, QuestionPool questionPool) {
-        this.examId = UUID.randomUUID().toString();
+        this.id = Ids.next();
         this.examName = examName;
         this.duration = duration;
         this.creator = creator;
@@ -41,7 +69,12 @@ public class Exam {
     }
 
     public String getExamId() {
-        return examId;
+        String formatted = examId;
+        if (formatted == null) {
+            formatted = Ids.format(id);
+            examId = formatted; // Racing readers format the same value
+        }
+        return formatted;
     }
 
     public String getExamName() {
@@ -57,7 +90,116 @@ public class Exam {
     }
 
     public List<ExamSession> getExamSessions() {
-        return examSessions;
+        return new ArrayList<>(examSessions);
+    }
+
+    /**
+     * Iterates the sessions of this exam without copying them; sessions started meanwhile may or may not be seen.
+     *
+     * @return A weakly consistent iterator over the sessions.
+     */
+    public Iterator<ExamSession> sessionIterator() {
+        return examSessions.iterator();
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public AttemptPolicy getAttemptPolicy() {
+        return attemptPolicy;
+    }
+
+    /**
+     * Allows students to take the exam several times.
+     *
+     * @param maxAttempts Maximum number of attempts per student (at least 1).
+     * @param policy      Which attempt counts as the student's result.
+     */
+    public void setAttemptPolicy(int maxAttempts, AttemptPolicy policy) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("An exam must allow at least one attempt.");
+        }
+        this.maxAttempts = maxAttempts;
+        this.attemptPolicy = policy;
+    }
+
+    public ScoreDistribution getScoreDistribution() {
+        return scoreDistribution;
+    }
+
+    public SessionArchive getSessionArchive() {
+        return sessionArchive;
+    }
+
+    /**
+     * Enables archiving: sessions submitted after this call are compacted into the archive.
+     *
+     * @param sessionArchive The archive to use (null disables archiving).
+     */
+    public void setSessionArchive(SessionArchive sessionArchive) {
+        this.sessionArchive = sessionArchive;
+    }
+
+    public AnswerAutosave getAnswerAutosave() {
+        return answerAutosave;
+    }
+
+    /**
+     * Enables autosave of answers for sessions started after this call.
+     *
+     * @param answerAutosave The autosave to record answers with (null disables autosave).
+     */
+    public void setAnswerAutosave(AnswerAutosave answerAutosave) {
+        this.answerAutosave = answerAutosave;
+    }
+
+    public AnswerMatrix getAnswerMatrix() {
+        return answerMatrix;
+    }
+
+    /**
+     * Stores the answers of sessions started from now on off-heap, in one matrix for the whole exam,
+     * instead of in each session. Each session gets a row sized by the questions it draws.
+     *
+     * @param rowsPerBlock Rows allocated at a time (e.g. the expected number of candidates per node / 8).
+     * @return The matrix.
+     */
+    public synchronized AnswerMatrix enableAnswerMatrix(int rowsPerBlock) {
+        if (snapshot == null) {
+            throw new IllegalStateException("Publish the exam before enabling the answer matrix.");
+        }
+        if (answerMatrix == null) {
+            answerMatrix = new AnswerMatrix(rowsPerBlock);
+        }
+        return answerMatrix;
+    }
+
+    public ExamScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Restricts starts to the candidates' assigned slots in an exam window.
+     *
+     * @param scheduler The scheduler to admit candidates with (null lets anyone start at any time).
+     */
+    public void setScheduler(ExamScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    public GradingPipeline getGradingPipeline() {
+        return gradingPipeline;
+    }
+
+    /**
+     * Sets the pipeline that grades sessions frozen by their timeout, e.g. for a fixed-end sitting where every
+     * timer fires at once. Can be shared by several exams.
+     *
+     * @param gradingPipeline The pipeline (null grades timed-out sessions on the timer thread).
+     */
+    public void setGradingPipeline(GradingPipeline gradingPipeline) {
+        this.gradingPipeline = gradingPipeline;
     }
 
     /**
@@ -71,47 +213,226 @@ public class Exam {
 
 
     /**
-     * Adds a specific question to the exam.
+     * Records that a session drew a pool question (randomly or adaptively), for the question-to-session index.
+     *
+     * @param session  The session.
+     * @param question The question it received.
+     */
+    public void indexDrawnQuestion(ExamSession session, Question question) {
+        sessionsByDrawnQuestion.computeIfAbsent(question.getQuestionId(), id -> new ConcurrentLinkedQueue<>()).add(session);
+    }
+
+    /**
+     * Gets the sessions that received a question: every session of a version where it is fixed, plus the
+     * sessions that drew it from the pool.
+     *
+     * @param questionId The ID of the question.
+     * @return The sessions (empty if none received it).
+     */
+    public List<ExamSession> getSessionsWithQuestion(String questionId) {
+        Queue<ExamSession> drawn = sessionsByDrawnQuestion.get(questionId);
+        List<ExamSession> sessions = drawn != null ? new ArrayList<>(drawn) : new ArrayList<>();
+        ExamSnapshot current = snapshot;
+        if (current != null && current.isFixedQuestion(questionId)) {
+            for (ExamSession session : examSessions) {
+                if (session.getSnapshot().isFixedQuestion(questionId)) {
+                    sessions.add(session);
+                }
+            }
+        }
+        return sessions;
+    }
+
+    /**
+     * Finds a question of this exam (added directly or available in its pool) by ID.
+     *
+     * @param questionId The ID of the question.
+     * @return The Question if found, null otherwise.
+     */
+    public Question findQuestion(String questionId) {
+        ExamSnapshot current = snapshot;
+        Question found = current != null ? current.findQuestion(questionId) : null;
+        if (found != null) {
+            return found;
+        }
+        synchronized (this) {
+            for (Question question : questions) {
+                if (question.getQuestionId().equals(questionId)) {
+                    return question;
+                }
+            }
+        }
+        return questionPool != null ? questionPool.getQuestionById(questionId) : null;
+    }
+
+    /**
+     * Publishes every submitted result of this exam in one pass, without per-result logging.
+     *
+     * @return The results that were newly published.
+     */
+    public List<ExamResult> publishResults() {
+        List<ExamResult> published = new ArrayList<>();
+        for (ExamSession session : examSessions) {
+            ExamResult result = session.getExamResult();
+            if (result != null && result.markPublished()) {
+                published.add(result);
+            }
+        }
+        System.out.println("Published " + published.size() + " results for exam: " + examName);
+        return published;
+    }
+
+    /**
+     * Adds a specific question to the exam. On a published exam this compiles a new version.
      *
      * @param question The question to add.
      */
-    public void addQuestion(Question question) {
+    public synchronized void addQuestion(Question question) {
         this.questions.add(question);
+        republish();
     }
 
     /**
      * Sets the number of random questions to be selected from the question pool.
+     * On a published exam this compiles a new version.
      *
      * @param count Number of random questions.
      */
-    public void setRandomQuestionCount(int count) {
+    public synchronized void setRandomQuestionCount(int count) {
         this.randomQuestionCount = count;
+        republish();
+    }
+
+    /**
+     * Sets the blueprint that pool questions are drawn by, replacing the random question count.
+     * On a published exam this compiles a new version.
+     *
+     * @param blueprint The blueprint, or null to go back to the random question count.
+     */
+    public synchronized void setBlueprint(ExamBlueprint blueprint) {
+        if (blueprint != null && questionPool == null) {
+            throw new IllegalStateException("A blueprint requires a question pool.");
+        }
+        this.blueprint = blueprint;
+        republish();
+    }
+
+    public synchronized ExamBlueprint getBlueprint() {
+        return blueprint;
+    }
+
+    /**
+     * Switches the exam to adaptive mode: each session picks its next question from the question pool
+     * based on the candidate's running ability estimate, instead of a fixed list.
+     *
+     * @param testLength Number of questions administered per session.
+     */
+    public synchronized void enableAdaptiveMode(int testLength) {
+        if (questionPool == null) {
+            throw new IllegalStateException("Adaptive mode requires a question pool.");
+        }
+        this.adaptiveTestLength = testLength;
+        republish();
+    }
+
+    public boolean isAdaptive() {
+        ExamSnapshot current = snapshot;
+        return current != null ? current.isAdaptive() : adaptiveTestLength > 0;
+    }
+
+    public int getAdaptiveTestLength() {
+        ExamSnapshot current = snapshot;
+        return current != null ? current.getAdaptiveTestLength() : adaptiveTestLength;
+    }
+
+    public AdaptiveItemBank getAdaptiveItemBank() {
+        ExamSnapshot current = snapshot;
+        return current != null ? current.getAdaptiveItemBank() : null;
+    }
+
+    /**
+     * Gets the compiled exam that new sessions use.
+     *
+     * @return The current snapshot, or an uncached draft compilation if the exam is not published.
+     */
+    public ExamSnapshot getSnapshot() {
+        ExamSnapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            return compile(0);
+        }
     }
 
     /**
      * Publishes the exam, making it available for students.
      */
-    public void publish() {
-        if (questions.isEmpty() && (questionPool == null || randomQuestionCount <= 0)) {
-            System.out.println("Exam " + examName + " cannot be published without questions.");
+    public synchronized void publish() {
+        ExamSnapshot compiled = compile(snapshot != null ? snapshot.getVersion() + 1 : 1);
+        if (compiled == null) {
             return;
         }
+        this.snapshot = compiled; // Built once, shared by all sessions
         this.isPublished = true;
     }
 
+    /**
+     * Compiles a new version after a question of this exam was changed in place (e.g. voided by a regrade),
+     * so blueprint papers of new sessions stop drawing it.
+     */
+    public synchronized void recompile() {
+        republish();
+    }
+
+    /**
+     * Compiles a new version after an edit to a published exam. Sessions already running keep their version.
+     */
+    private void republish() {
+        if (isPublished) {
+            ExamSnapshot compiled = compile(snapshot.getVersion() + 1);
+            if (compiled != null) {
+                this.snapshot = compiled;
+                System.out.println("Exam " + examName + " updated to version " + compiled.getVersion() + ".");
+            }
+        }
+    }
+
+    /**
+     * Compiles the current draft into a snapshot.
+     *
+     * @param version Version number of the snapshot.
+     * @return The snapshot, or null if the draft cannot be published.
+     */
+    private ExamSnapshot compile(int version) {
+        List<Question> poolQuestions = questionPool != null ? questionPool.getQuestions() : Collections.emptyList();
+        if (adaptiveTestLength > 0) {
+            AdaptiveItemBank bank = AdaptiveItemBank.build(poolQuestions);
+            if (bank.size() == 0) {
+                System.out.println("Exam " + examName + " cannot be published: no calibrated questions for adaptive mode.");
+                return null;
+            }
+            return new ExamSnapshot(version, questions, poolQuestions, 0, null, bank, adaptiveTestLength);
+        }
+        if (questions.isEmpty() && blueprint == null && (poolQuestions.isEmpty() || randomQuestionCount <= 0)) {
+            System.out.println("Exam " + examName + " cannot be published without questions.");
+            return null;
+        }
+        ExamSnapshot compiled = new ExamSnapshot(version, questions, poolQuestions, randomQuestionCount, blueprint, null, 0);
+        if (compiled.getBlueprintProblem() != null) {
+            System.out.println("Exam " + examName + " cannot be published: " + compiled.getBlueprintProblem() + ".");
+            return null;
+        }
+        return compiled;
+    }
+
     /**
      * Gets the list of questions for the exam, including specific questions and random questions from the pool.
      *
      * @return List of questions for the exam.
      */
     public List<Question> getExamQuestions() {
-        List<Question> examQuestions = new ArrayList<>(this.questions); // Start with specific questions
-
-        if (questionPool != null && randomQuestionCount > 0) {
-            List<Question> randomQuestions = questionPool.getRandomQuestions(randomQuestionCount, examQuestions);
-            examQuestions.addAll(randomQuestions);
-        }
-        Collections.shuffle(examQuestions); // Randomize the order of all questions
-        return examQuestions;
+        ExamSnapshot current = getSnapshot();
+        return current != null ? current.sampleQuestions(ThreadLocalRandom.current()) : new ArrayList<>();
     }
 }
\ No newline at end of file
@@ -0,0 +1,161 @@
+package com.example.onlineexamsystem.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Describes the paper each session of an exam receives from the question pool, e.g. "10 objective questions on
+ * topic A at difficulty 2-3, 2 essays, total marks exactly 50".
+ *
+ * <p>Rules are matched against the topic and difficulty tags of the pool questions. A question that matches several
+ * rules only counts for the first one, so a paper never contains the same question twice. The total marks include
+ * the questions added directly to the exam. The blueprint is read when the exam is compiled; set it again on the exam
+ * after changing it.
+ */
+public final class ExamBlueprint {
+    /**
+     * Kind of question a rule selects.
+     */
+    public enum QuestionKind {
+        ANY,
+        OBJECTIVE,
+        ESSAY;
+
+        boolean matches(Question question) {
+            switch (this) {
+                case OBJECTIVE:
+                    return question instanceof ObjectiveQuestion;
+                case ESSAY:
+                    return question instanceof EssayQuestion;
+                default:
+                    return true;
+            }
+        }
+    }
+
+    private final int totalMarks; // 0 if the total is not constrained
+    private final List<Rule> rules = new ArrayList<>();
+
+    /**
+     * Constructor for ExamBlueprint.
+     *
+     * @param totalMarks Exact total marks of every paper, or 0 to leave the total unconstrained.
+     */
+    public ExamBlueprint(int totalMarks) {
+        if (totalMarks < 0) {
+            throw new IllegalArgumentException("Total marks cannot be negative.");
+        }
+        this.totalMarks = totalMarks;
+    }
+
+    public int getTotalMarks() {
+        return totalMarks;
+    }
+
+    public boolean hasTotalMarks() {
+        return totalMarks > 0;
+    }
+
+    /**
+     * Adds a rule to the blueprint.
+     *
+     * @param count         Number of questions drawn for this rule.
+     * @param kind          Kind of question.
+     * @param topic         Required topic tag, or null for any topic.
+     * @param minDifficulty Lowest difficulty tag (inclusive).
+     * @param maxDifficulty Highest difficulty tag (inclusive).
+     */
+    public void addRule(int count, QuestionKind kind, String topic, int minDifficulty, int maxDifficulty) {
+        if (count < 1 || minDifficulty > maxDifficulty) {
+            throw new IllegalArgumentException("Invalid blueprint rule.");
+        }
+        rules.add(new Rule(count, kind, topic, minDifficulty, maxDifficulty));
+    }
+
+    /**
+     * Adds a rule for any difficulty.
+     *
+     * @param count Number of questions drawn for this rule.
+     * @param kind  Kind of question.
+     * @param topic Required topic tag, or null for any topic.
+     */
+    public void addRule(int count, QuestionKind kind, String topic) {
+        addRule(count, kind, topic, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    public List<Rule> getRules() {
+        return Collections.unmodifiableList(rules);
+    }
+
+    /**
+     * Gets the number of pool questions in every paper.
+     *
+     * @return Sum of the rule counts.
+     */
+    public int getQuestionCount() {
+        int count = 0;
+        for (Rule rule : rules) {
+            count += rule.getCount();
+        }
+        return count;
+    }
+
+    /**
+     * One line of a blueprint: how many questions of a kind, topic and difficulty range.
+     */
+    public static final class Rule {
+        private final int count;
+        private final QuestionKind kind;
+        private final String topic;
+        private final int minDifficulty;
+        private final int maxDifficulty;
+
+        private Rule(int count, QuestionKind kind, String topic, int minDifficulty, int maxDifficulty) {
+            this.count = count;
+            this.kind = kind;
+            this.topic = topic;
+            this.minDifficulty = minDifficulty;
+            this.maxDifficulty = maxDifficulty;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public QuestionKind getKind() {
+            return kind;
+        }
+
+        public String getTopic() {
+            return topic;
+        }
+
+        public int getMinDifficulty() {
+            return minDifficulty;
+        }
+
+        public int getMaxDifficulty() {
+            return maxDifficulty;
+        }
+
+        /**
+         * Checks whether a question satisfies this rule.
+         *
+         * @param question The question.
+         * @return True if kind, topic and difficulty match.
+         */
+        public boolean matches(Question question) {
+            return kind.matches(question)
+                    && (topic == null || topic.equals(question.getTopic()))
+                    && question.getDifficulty() >= minDifficulty && question.getDifficulty() <= maxDifficulty;
+        }
+
+        @Override
+        public String toString() {
+            return count + " " + kind + (topic != null ? " on " + topic : "")
+                    + (minDifficulty > Integer.MIN_VALUE || maxDifficulty < Integer.MAX_VALUE
+                    ? " at difficulty " + minDifficulty + "-" + maxDifficulty : "");
+        }
+    }
+}
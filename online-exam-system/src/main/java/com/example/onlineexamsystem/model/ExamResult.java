@@ -1,19 +1,27 @@
 package com.example.onlineexamsystem.model;
 
+import com.example.onlineexamsystem.id.Ids;
 import com.example.onlineexamsystem.service.ExamSession;
 
-import java.util.UUID;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Represents the result of an exam session.
  */
 public class ExamResult {
-    private final String resultId;
+    private final long id;
+    private String resultId; // String form, formatted on first use
     private final ExamSession examSession;
-    private final int score;
-    private final int totalMarks;
+    private final LocalDateTime submittedAt; // When the session was frozen, even if it was graded later
+    private volatile int score;      // Changed only by a regrade
+    private volatile int totalMarks;
+    private final List<ScoreRevision> revisions = new ArrayList<>(0); // Audit trail, guarded by this
     private String comments;
-    private boolean isPublished = false;
+    private final AtomicBoolean published = new AtomicBoolean();
 
     /**
      * Constructor for ExamResult.
@@ -23,20 +31,30 @@ public class ExamResult {
      * @param totalMarks  The total marks for the exam.
      */
     public ExamResult(ExamSession examSession, int score, int totalMarks) {
-        this.resultId = UUID.randomUUID().toString();
+        this.id = Ids.next();
         this.examSession = examSession;
+        this.submittedAt = examSession.getEndTime();
         this.score = score;
         this.totalMarks = totalMarks;
     }
 
     public String getResultId() {
-        return resultId;
+        String formatted = resultId;
+        if (formatted == null) {
+            formatted = Ids.format(id);
+            resultId = formatted; // Racing readers format the same value
+        }
+        return formatted;
     }
 
     public ExamSession getExamSession() {
         return examSession;
     }
 
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
     public int getScore() {
         return score;
     }
@@ -45,12 +63,41 @@ public class ExamResult {
         return totalMarks;
     }
 
+    /**
+     * Gets the audit trail of regrades, oldest first.
+     *
+     * @return The revisions (empty if the result was never regraded).
+     */
+    public synchronized List<ScoreRevision> getRevisions() {
+        return new ArrayList<>(revisions);
+    }
+
+    /**
+     * Changes the score after a regrade and records the change in the audit trail.
+     *
+     * @param newScore      The recomputed score.
+     * @param newTotalMarks The recomputed total marks.
+     * @param reason        Why the result was regraded.
+     * @return The recorded revision, or null if neither score nor total marks changed.
+     */
+    public synchronized ScoreRevision revise(int newScore, int newTotalMarks, String reason) {
+        if (newScore == score && newTotalMarks == totalMarks) {
+            return null;
+        }
+        ScoreRevision revision = new ScoreRevision(revisions.size() + 1, score, newScore, totalMarks, newTotalMarks,
+                reason, Instant.now());
+        revisions.add(revision);
+        this.score = newScore;
+        this.totalMarks = newTotalMarks;
+        return revision;
+    }
+
     public String getComments() {
         return comments;
     }
 
     public boolean isPublished() {
-        return isPublished;
+        return published.get();
     }
 
     /**
@@ -66,7 +113,16 @@ public class ExamResult {
      * Publishes the exam result, making it visible to students.
      */
     public void publishResult() {
-        this.isPublished = true;
+        published.set(true);
         System.out.println("Result published for student: " + examSession.getStudent().getUsername() + ", Exam: " + examSession.getExam().getExamName());
     }
+
+    /**
+     * Publishes the result without logging, for bulk publication.
+     *
+     * @return True if the result was not published before.
+     */
+    public boolean markPublished() {
+        return published.compareAndSet(false, true); // Concurrent publishers flip it once
+    }
 }
\ No newline at end of file
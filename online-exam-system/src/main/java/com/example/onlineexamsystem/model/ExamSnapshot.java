@@ -0,0 +1,165 @@
+package com.example.onlineexamsystem.model;
+
+import com.example.onlineexamsystem.adaptive.AdaptiveItemBank;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Immutable, compiled form of a published exam, shared by all of its sessions without locking.
+ *
+ * <p>Built by {@link Exam#publish()} from the exam's questions and pool: the fixed questions are flattened into an
+ * array, and the pool questions a session may draw from are copied into a candidate array that is sampled with
+ * Floyd's algorithm (k random draws, no shuffle of the whole pool). With a blueprint, the pool questions are drawn
+ * by a {@link BlueprintSampler} instead, so that every paper has the same structure and total marks. Editing a
+ * published exam compiles a new snapshot with the next version number; sessions keep the snapshot they started with.
+ * A snapshot fixes which questions a session gets, not how they are scored: the questions themselves are shared, so
+ * an answer-key correction or a voided question applies to sessions of every version.
+ */
+public final class ExamSnapshot {
+    private final int version;
+    private final Question[] fixedQuestions;
+    private final Question[] poolCandidates; // Pool questions not already fixed in the exam, nor voided
+    private final int randomQuestionCount;   // Clamped to the number of candidates
+    private final BlueprintSampler blueprintSampler; // Null unless the exam has a blueprint
+    private final Map<String, Question> questionsById;
+    private final Set<String> fixedQuestionIds;
+    private final AdaptiveItemBank adaptiveItemBank; // Null unless the exam is adaptive
+    private final int adaptiveTestLength;
+
+    /**
+     * Constructor for ExamSnapshot.
+     *
+     * @param version             Version number of the snapshot (0 for an unpublished draft).
+     * @param questions           Questions added directly to the exam.
+     * @param poolQuestions       Questions of the exam's pool (empty if it has none).
+     * @param randomQuestionCount Number of pool questions drawn per session (ignored with a blueprint).
+     * @param blueprint           Blueprint the pool questions are drawn by, or null.
+     * @param adaptiveItemBank    Item bank for adaptive sessions, or null.
+     * @param adaptiveTestLength  Number of questions per adaptive session (0 if not adaptive).
+     */
+    ExamSnapshot(int version, List<Question> questions, List<Question> poolQuestions, int randomQuestionCount,
+                 ExamBlueprint blueprint, AdaptiveItemBank adaptiveItemBank, int adaptiveTestLength) {
+        this.version = version;
+        this.fixedQuestions = questions.toArray(new Question[0]);
+        Map<String, Question> byId = new HashMap<>();
+        int fixedMarks = 0;
+        for (Question question : fixedQuestions) {
+            if (!question.isVoided()) {
+                fixedMarks += question.getMarks(); // Voided questions count towards no total
+            }
+            byId.putIfAbsent(question.getQuestionId(), question);
+        }
+        this.fixedQuestionIds = Collections.unmodifiableSet(new HashSet<>(byId.keySet()));
+        Set<Question> fixed = new HashSet<>(questions);
+        List<Question> candidates = new ArrayList<>(poolQuestions.size());
+        for (Question question : poolQuestions) {
+            byId.putIfAbsent(question.getQuestionId(), question);
+            if (!fixed.contains(question) && !question.isVoided()) {
+                candidates.add(question); // Voided questions are no longer drawn
+            }
+        }
+        this.poolCandidates = candidates.toArray(new Question[0]);
+        this.blueprintSampler = blueprint != null ? new BlueprintSampler(blueprint, poolCandidates, fixedMarks) : null;
+        this.randomQuestionCount = blueprint != null ? blueprint.getQuestionCount()
+                : Math.max(0, Math.min(randomQuestionCount, poolCandidates.length));
+        this.questionsById = Collections.unmodifiableMap(byId);
+        this.adaptiveItemBank = adaptiveItemBank;
+        this.adaptiveTestLength = adaptiveTestLength;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets why the exam's blueprint cannot be satisfied by the pool.
+     *
+     * @return The reason, or null if there is no blueprint or it can be satisfied.
+     */
+    public String getBlueprintProblem() {
+        return blueprintSampler != null ? blueprintSampler.getUnsatisfiedReason() : null;
+    }
+
+    public boolean isAdaptive() {
+        return adaptiveItemBank != null;
+    }
+
+    public AdaptiveItemBank getAdaptiveItemBank() {
+        return adaptiveItemBank;
+    }
+
+    public int getAdaptiveTestLength() {
+        return adaptiveTestLength;
+    }
+
+    /**
+     * Gets the number of questions each (non-adaptive) session receives.
+     *
+     * @return Fixed questions plus random (or blueprint) pool questions.
+     */
+    public int getQuestionCount() {
+        return fixedQuestions.length + randomQuestionCount;
+    }
+
+    /**
+     * Checks whether every session of this version receives a question.
+     *
+     * @param questionId The ID of the question.
+     * @return True if the question is one of the fixed questions.
+     */
+    public boolean isFixedQuestion(String questionId) {
+        return fixedQuestionIds.contains(questionId);
+    }
+
+    /**
+     * Finds a question of this snapshot (fixed or in the pool) by ID.
+     *
+     * @param questionId The ID of the question.
+     * @return The Question if found, null otherwise.
+     */
+    public Question findQuestion(String questionId) {
+        return questionsById.get(questionId);
+    }
+
+    /**
+     * Draws the questions for a new session: every fixed question plus a random sample of pool questions
+     * (drawn by the blueprint, if any), in random order.
+     *
+     * @param random Source of randomness (e.g. the calling thread's ThreadLocalRandom).
+     * @return A new, mutable list of questions.
+     */
+    public List<Question> sampleQuestions(Random random) {
+        List<Question> sampled = new ArrayList<>(getQuestionCount());
+        Collections.addAll(sampled, fixedQuestions);
+        if (blueprintSampler != null) {
+            blueprintSampler.sample(random, sampled);
+        } else {
+            sampleDistinct(poolCandidates, randomQuestionCount, random, sampled);
+        }
+        Collections.shuffle(sampled, random); // Randomize the order of all questions
+        return sampled;
+    }
+
+    /**
+     * Appends k distinct random elements of an array, using Floyd's algorithm (exactly k draws).
+     */
+    static void sampleDistinct(Question[] from, int k, Random random, List<Question> into) {
+        int n = from.length;
+        Set<Integer> chosen = new HashSet<>(k * 2);
+        for (int j = n - k; j < n; j++) {
+            int pick = random.nextInt(j + 1);
+            if (!chosen.add(pick)) {
+                chosen.add(j);
+                pick = j;
+            }
+            into.add(from[pick]);
+        }
+    }
+}
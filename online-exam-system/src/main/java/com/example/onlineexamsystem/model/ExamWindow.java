@@ -0,0 +1,85 @@
+package com.example.onlineexamsystem.model;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * The period in which candidates may start an exam, divided into equal start slots with a capacity each.
+ */
+public final class ExamWindow {
+    private final Instant opensAt;
+    private final Instant closesAt;
+    private final Duration slotLength;
+    private final int slotCapacity;
+    private final int slotCount;
+
+    /**
+     * Constructor for ExamWindow.
+     *
+     * @param opensAt      Start of the first slot.
+     * @param closesAt     Latest time a candidate may start.
+     * @param slotLength   Length of each start slot.
+     * @param slotCapacity Maximum number of candidates assigned to one slot.
+     */
+    public ExamWindow(Instant opensAt, Instant closesAt, Duration slotLength, int slotCapacity) {
+        if (!closesAt.isAfter(opensAt) || slotLength.isZero() || slotLength.isNegative() || slotCapacity < 1) {
+            throw new IllegalArgumentException("Invalid exam window.");
+        }
+        this.opensAt = opensAt;
+        this.closesAt = closesAt;
+        this.slotLength = slotLength;
+        this.slotCapacity = slotCapacity;
+        long windowNanos = Duration.between(opensAt, closesAt).toNanos();
+        this.slotCount = (int) Math.max(1, (windowNanos + slotLength.toNanos() - 1) / slotLength.toNanos());
+    }
+
+    public Instant getOpensAt() {
+        return opensAt;
+    }
+
+    public Instant getClosesAt() {
+        return closesAt;
+    }
+
+    public Duration getSlotLength() {
+        return slotLength;
+    }
+
+    public int getSlotCapacity() {
+        return slotCapacity;
+    }
+
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    /**
+     * Gets the time from which candidates assigned to a slot may start.
+     *
+     * @param slot Index of the slot.
+     * @return Start time of the slot.
+     */
+    public Instant getSlotStart(int slot) {
+        return opensAt.plus(slotLength.multipliedBy(slot));
+    }
+
+    /**
+     * Gets the time until which candidates assigned to a slot may start.
+     *
+     * @param slot Index of the slot.
+     * @return End time of the slot (exclusive), at most the window's closing time.
+     */
+    public Instant getSlotEnd(int slot) {
+        Instant end = getSlotStart(slot).plus(slotLength);
+        return end.isAfter(closesAt) ? closesAt : end;
+    }
+
+    /**
+     * Gets the total number of candidates the window can admit.
+     *
+     * @return Slot count times slot capacity.
+     */
+    public long getCapacity() {
+        return (long) slotCount * slotCapacity;
+    }
+}
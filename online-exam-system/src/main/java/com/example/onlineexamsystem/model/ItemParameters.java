@@ -0,0 +1,73 @@
+package com.example.onlineexamsystem.model;
+
+/**
+ * Item response theory (3PL) parameters of a question, used by adaptive testing.
+ */
+public final class ItemParameters {
+    private static final double SCALE = 1.702; // Logistic scaling constant approximating the normal ogive
+
+    private final double discrimination;
+    private final double difficulty;
+    private final double guessing;
+
+    /**
+     * Constructor for ItemParameters.
+     *
+     * @param discrimination The a parameter (slope), must be positive.
+     * @param difficulty     The b parameter (location on the ability scale).
+     * @param guessing       The c parameter (lower asymptote), in [0, 1).
+     */
+    public ItemParameters(double discrimination, double difficulty, double guessing) {
+        if (discrimination <= 0 || guessing < 0 || guessing >= 1) {
+            throw new IllegalArgumentException("Invalid IRT parameters: a=" + discrimination + ", c=" + guessing);
+        }
+        this.discrimination = discrimination;
+        this.difficulty = difficulty;
+        this.guessing = guessing;
+    }
+
+    public double getDiscrimination() {
+        return discrimination;
+    }
+
+    public double getDifficulty() {
+        return difficulty;
+    }
+
+    public double getGuessing() {
+        return guessing;
+    }
+
+    /**
+     * Probability of a correct response at the given ability.
+     *
+     * @param theta Ability.
+     * @return P(correct | theta).
+     */
+    public double probabilityCorrect(double theta) {
+        return guessing + (1 - guessing) / (1 + Math.exp(-SCALE * discrimination * (theta - difficulty)));
+    }
+
+    /**
+     * Fisher information of the item at the given ability.
+     *
+     * @param theta Ability.
+     * @return Item information.
+     */
+    public double information(double theta) {
+        double p = probabilityCorrect(theta);
+        double q = 1 - p;
+        double da = SCALE * discrimination;
+        double ratio = (p - guessing) / (1 - guessing);
+        return da * da * (q / p) * ratio * ratio;
+    }
+
+    /**
+     * Ability at which the item is most informative (equals the difficulty when there is no guessing).
+     *
+     * @return The peak-information ability.
+     */
+    public double peakTheta() {
+        return difficulty + Math.log((1 + Math.sqrt(1 + 8 * guessing)) / 2) / (SCALE * discrimination);
+    }
+}
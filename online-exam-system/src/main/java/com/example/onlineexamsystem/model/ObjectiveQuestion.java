@@ -8,7 +8,7 @@ import java.util.List;
  */
 public class ObjectiveQuestion extends Question {
     private final List<String> options;
-    private final String correctAnswer;
+    private volatile String correctAnswer; // Corrected by a regrade
 
     /**
      * Constructor for ObjectiveQuestion.
@@ -29,6 +29,38 @@ public class ObjectiveQuestion extends Question {
         return new ArrayList<>(options); // Return a copy
     }
 
+    public String getCorrectAnswer() {
+        return correctAnswer;
+    }
+
+    /**
+     * Corrects the answer key. Use RegradeEngine to apply this to results that were already computed.
+     *
+     * @param correctAnswer The correct answer.
+     */
+    public void setCorrectAnswer(String correctAnswer) {
+        this.correctAnswer = correctAnswer;
+    }
+
+    /**
+     * Maps an answer to the option it selects, so that stored answers share the option's String instead of
+     * holding a copy per candidate.
+     *
+     * @param answer The student's answer.
+     * @return The matching option, or the answer itself if it matches none.
+     */
+    public String canonicalize(String answer) {
+        if (answer != null) {
+            String trimmed = answer.trim();
+            for (String option : options) {
+                if (option.trim().equalsIgnoreCase(trimmed)) {
+                    return option;
+                }
+            }
+        }
+        return answer;
+    }
+
     @Override
     public int checkAnswer(String answer) {
         if (answer != null && answer.trim().equalsIgnoreCase(correctAnswer)) {
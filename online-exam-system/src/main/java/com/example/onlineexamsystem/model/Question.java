@@ -7,6 +7,10 @@ public abstract class Question {
     private final String questionId;
     private final String questionText;
     private final int marks;
+    private ItemParameters irtParameters; // Optional, required for adaptive testing
+    private volatile boolean voided = false; // Voided questions count towards neither score nor total marks
+    private volatile String topic;           // Optional tag matched by exam blueprints
+    private volatile int difficulty = 0;     // Optional tag matched by exam blueprints (0 if untagged)
 
     /**
      * Constructor for Question.
@@ -33,6 +37,49 @@ public abstract class Question {
         return marks;
     }
 
+    public ItemParameters getIrtParameters() {
+        return irtParameters;
+    }
+
+    /**
+     * Sets the IRT parameters used to select this question in adaptive exams.
+     *
+     * @param irtParameters The calibrated item parameters.
+     */
+    public void setIrtParameters(ItemParameters irtParameters) {
+        this.irtParameters = irtParameters;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public void setTopic(String topic) {
+        this.topic = topic;
+    }
+
+    public int getDifficulty() {
+        return difficulty;
+    }
+
+    public void setDifficulty(int difficulty) {
+        this.difficulty = difficulty;
+    }
+
+    public boolean isVoided() {
+        return voided;
+    }
+
+    /**
+     * Voids the question (e.g. because it was ambiguous): it no longer counts towards score or total marks.
+     * Use RegradeEngine to apply this to results that were already computed.
+     *
+     * @param voided True to void the question, false to reinstate it.
+     */
+    public void setVoided(boolean voided) {
+        this.voided = voided;
+    }
+
     /**
      * Abstract method to check if the given answer is correct (implementation varies by question type).
      *
@@ -1,21 +1,27 @@
 package com.example.onlineexamsystem.model;
 
+import com.example.onlineexamsystem.id.Ids;
+import com.example.onlineexamsystem.service.QuestionSearchIndex;
 import com.example.onlineexamsystem.user.AdminUser;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
  * Represents a question pool, a collection of questions managed by an Admin.
  */
 public class QuestionPool {
-    private final String poolId;
+    private final long id;
+    private String poolId; // String form, formatted on first use
     private final String poolName;
     private final AdminUser creator;
     private final List<Question> questions = new ArrayList<>();
+    private final Map<String, Question> questionsById = new HashMap<>();
+    private volatile QuestionSearchIndex searchIndex; // Null if the pool is not indexed
 
     /**
      * Constructor for QuestionPool.
@@ -24,27 +30,86 @@ public class QuestionPool {
      * @param creator  AdminUser who created the pool.
      */
     public QuestionPool(String poolName, AdminUser creator) {
-        this.poolId = UUID.randomUUID().toString();
+        this.id = Ids.next();
         this.poolName = poolName;
         this.creator = creator;
     }
 
     public String getPoolId() {
-        return poolId;
+        String formatted = poolId;
+        if (formatted == null) {
+            formatted = Ids.format(id);
+            poolId = formatted; // Racing readers format the same value
+        }
+        return formatted;
     }
 
     public String getPoolName() {
         return poolName;
     }
 
+    public QuestionSearchIndex getSearchIndex() {
+        return searchIndex;
+    }
+
+    /**
+     * Sets the full-text index that questions added from now on are indexed into.
+     *
+     * @param searchIndex The index, usually shared by all pools of the system.
+     */
+    public void setSearchIndex(QuestionSearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
     /**
-     * Adds a question to the question pool.
+     * Adds a question to the question pool and, if the pool is indexed, to the search index.
      *
      * @param question The question to add.
+     * @return Indexed questions that are near-duplicates of the new one (empty if none, or if the pool is not indexed).
      */
-    public void addQuestion(Question question) {
-        this.questions.add(question);
+    public List<Question> addQuestion(Question question) {
+        synchronized (this) {
+            this.questions.add(question);
+            this.questionsById.putIfAbsent(question.getQuestionId(), question);
+        }
         System.out.println("Question added to pool: " + poolName + ", Question ID: " + question.getQuestionId());
+        QuestionSearchIndex index = searchIndex;
+        return index != null ? index.add(question) : Collections.emptyList();
+    }
+
+    /**
+     * Tags a question with a topic and difficulty, then adds it to the question pool.
+     *
+     * @param question   The question to add.
+     * @param topic      Topic of the question (e.g. "Algebra").
+     * @param difficulty Difficulty level of the question (e.g. 1 to 5).
+     * @return Indexed questions that are near-duplicates of the new one (empty if none).
+     */
+    public List<Question> addQuestion(Question question, String topic, int difficulty) {
+        question.setTopic(topic);
+        question.setDifficulty(difficulty);
+        return addQuestion(question);
+    }
+
+    /**
+     * Gets the questions of the pool tagged with a topic.
+     *
+     * @param topic The topic.
+     * @return List of questions.
+     */
+    public synchronized List<Question> getQuestionsByTopic(String topic) {
+        return questions.stream()
+                .filter(q -> topic.equals(q.getTopic()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Gets all questions in the pool.
+     *
+     * @return List of questions.
+     */
+    public synchronized List<Question> getQuestions() {
+        return new ArrayList<>(questions);
     }
 
     /**
@@ -53,11 +118,8 @@ public class QuestionPool {
      * @param questionId The ID of the question to retrieve.
      * @return The Question object if found, null otherwise.
      */
-    public Question getQuestionById(String questionId) {
-        return questions.stream()
-                .filter(q -> q.getQuestionId().equals(questionId))
-                .findFirst()
-                .orElse(null);
+    public synchronized Question getQuestionById(String questionId) {
+        return questionsById.get(questionId);
     }
 
     /**
@@ -67,7 +129,7 @@ public class QuestionPool {
      * @param excludedQuestions List of questions to exclude from random selection (e.g., already added to exam).
      * @return List of random questions.
      */
-    public List<Question> getRandomQuestions(int count, List<Question> excludedQuestions) {
+    public synchronized List<Question> getRandomQuestions(int count, List<Question> excludedQuestions) {
         List<Question> availableQuestions = questions.stream()
                 .filter(q -> !excludedQuestions.contains(q))
                 .collect(Collectors.toList());
@@ -0,0 +1,245 @@
+package com.example.onlineexamsystem.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Order statistics over the scores of one exam, updated on each submission.
+ *
+ * <p>Counts per score are kept in a Fenwick (binary indexed) tree with one bucket per integer score, so
+ * rank, percentile and range counts are O(log maxScore). Results are also grouped by score in a sorted map,
+ * so top-N and "between X and Y" listings only touch the buckets they return.
+ * Reads share a read lock; a submission takes the write lock briefly.
+ */
+public class ScoreDistribution {
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long[] tree = new long[64 + 1]; // 1-based Fenwick tree, bucket i holds score i - 1
+    private final NavigableMap<Integer, Set<ExamResult>> resultsByScore = new TreeMap<>();
+    private final Map<ExamResult, Integer> recordedScores = new HashMap<>(); // Score each result is counted under
+    private long total = 0;
+
+    /**
+     * Records a submitted result. Recording a result again moves it to its current score.
+     *
+     * @param result The result to add.
+     */
+    public void record(ExamResult result) {
+        int score = Math.max(0, result.getScore());
+        lock.writeLock().lock();
+        try {
+            Integer recorded = recordedScores.put(result, score);
+            if (recorded != null) {
+                if (recorded == score) {
+                    return;
+                }
+                unrecord(result, recorded);
+            }
+            ensureCapacity(score);
+            add(score, 1);
+            resultsByScore.computeIfAbsent(score, s -> new LinkedHashSet<>()).add(result);
+            total++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a result with the score it was recorded with (e.g. before re-recording a regraded result).
+     *
+     * @param result The result to remove.
+     */
+    public void remove(ExamResult result) {
+        lock.writeLock().lock();
+        try {
+            Integer recorded = recordedScores.remove(result);
+            if (recorded != null) {
+                unrecord(result, recorded);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long getTotalCount() {
+        lock.readLock().lock();
+        try {
+            return total;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rank of a score: 1 + the number of results with a strictly higher score.
+     *
+     * @param score The score.
+     * @return The rank (1 is best).
+     */
+    public long rankOf(int score) {
+        lock.readLock().lock();
+        try {
+            return 1 + total - countAtMost(score);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Percentile rank of a score: share of results below it, counting ties as half.
+     *
+     * @param score The score.
+     * @return Percentile rank in [0, 100].
+     */
+    public double percentileOf(int score) {
+        lock.readLock().lock();
+        try {
+            if (total == 0) {
+                return 0.0;
+            }
+            long below = countAtMost(score - 1);
+            long equal = countAtMost(score) - below;
+            return 100.0 * (below + 0.5 * equal) / total;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts results with a score in [minScore, maxScore].
+     *
+     * @param minScore Lowest score, inclusive.
+     * @param maxScore Highest score, inclusive.
+     * @return Number of results in the range.
+     */
+    public long countBetween(int minScore, int maxScore) {
+        if (minScore > maxScore) {
+            return 0;
+        }
+        lock.readLock().lock();
+        try {
+            return countAtMost(maxScore) - countAtMost(minScore - 1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lists results with a score in [minScore, maxScore], highest score first.
+     *
+     * @param minScore Lowest score, inclusive.
+     * @param maxScore Highest score, inclusive.
+     * @return The results in the range.
+     */
+    public List<ExamResult> resultsBetween(int minScore, int maxScore) {
+        if (minScore > maxScore) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            List<ExamResult> results = new ArrayList<>();
+            for (Set<ExamResult> bucket : resultsByScore.subMap(minScore, true, maxScore, true).descendingMap().values()) {
+                results.addAll(bucket);
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the top N results, highest score first (ties in submission order).
+     *
+     * @param n Number of results.
+     * @return Up to n results.
+     */
+    public List<ExamResult> topResults(int n) {
+        return topResults(n, result -> true);
+    }
+
+    /**
+     * Gets the top N results that pass a filter, highest score first (ties in submission order).
+     *
+     * @param n      Number of results.
+     * @param filter Which results may be listed, e.g. only published ones.
+     * @return Up to n results.
+     */
+    public List<ExamResult> topResults(int n, Predicate<ExamResult> filter) {
+        lock.readLock().lock();
+        try {
+            List<ExamResult> top = new ArrayList<>(Math.min(n, (int) Math.min(total, Integer.MAX_VALUE)));
+            for (Map.Entry<Integer, Set<ExamResult>> bucket : resultsByScore.descendingMap().entrySet()) {
+                for (ExamResult result : bucket.getValue()) {
+                    if (top.size() >= n) {
+                        return top;
+                    }
+                    if (filter.test(result)) {
+                        top.add(result);
+                    }
+                }
+            }
+            return top;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Number of recorded results with score <= the given score
+    private long countAtMost(int score) {
+        if (score < 0) {
+            return 0;
+        }
+        long count = 0;
+        for (int i = Math.min(score + 1, tree.length - 1); i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+
+    private void unrecord(ExamResult result, int score) {
+        Set<ExamResult> bucket = resultsByScore.get(score);
+        bucket.remove(result);
+        if (bucket.isEmpty()) {
+            resultsByScore.remove(score);
+        }
+        add(score, -1);
+        total--;
+    }
+
+    private void add(int score, long delta) {
+        for (int i = score + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    private void ensureCapacity(int score) {
+        if (score + 1 < tree.length) {
+            return;
+        }
+        int size = tree.length - 1;
+        while (score + 1 > size) {
+            size *= 2;
+        }
+        // Rebuild from the per-score counts, O(size)
+        long[] grown = new long[size + 1];
+        for (Map.Entry<Integer, Set<ExamResult>> bucket : resultsByScore.entrySet()) {
+            grown[bucket.getKey() + 1] += bucket.getValue().size();
+        }
+        for (int i = 1; i <= size; i++) {
+            int parent = i + (i & -i);
+            if (parent <= size) {
+                grown[parent] += grown[i];
+            }
+        }
+        tree = grown;
+    }
+}
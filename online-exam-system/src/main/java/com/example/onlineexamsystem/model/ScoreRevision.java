@@ -0,0 +1,77 @@
+package com.example.onlineexamsystem.model;
+
+import java.time.Instant;
+
+/**
+ * One entry of an ExamResult's audit trail: a score change made by a regrade.
+ */
+public final class ScoreRevision {
+    private final int revision;
+    private final int oldScore;
+    private final int newScore;
+    private final int oldTotalMarks;
+    private final int newTotalMarks;
+    private final String reason;
+    private final Instant revisedAt;
+
+    /**
+     * Constructor for ScoreRevision.
+     *
+     * @param revision      Revision number of the result after this change (1 for the first regrade).
+     * @param oldScore      Score before the change.
+     * @param newScore      Score after the change.
+     * @param oldTotalMarks Total marks before the change.
+     * @param newTotalMarks Total marks after the change.
+     * @param reason        Why the result was regraded.
+     * @param revisedAt     When the change was made.
+     */
+    public ScoreRevision(int revision, int oldScore, int newScore, int oldTotalMarks, int newTotalMarks,
+                         String reason, Instant revisedAt) {
+        this.revision = revision;
+        this.oldScore = oldScore;
+        this.newScore = newScore;
+        this.oldTotalMarks = oldTotalMarks;
+        this.newTotalMarks = newTotalMarks;
+        this.reason = reason;
+        this.revisedAt = revisedAt;
+    }
+
+    public int getRevision() {
+        return revision;
+    }
+
+    public int getOldScore() {
+        return oldScore;
+    }
+
+    public int getNewScore() {
+        return newScore;
+    }
+
+    public int getOldTotalMarks() {
+        return oldTotalMarks;
+    }
+
+    public int getNewTotalMarks() {
+        return newTotalMarks;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public Instant getRevisedAt() {
+        return revisedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "ScoreRevision{" +
+               "revision=" + revision +
+               ", score=" + oldScore + "->" + newScore +
+               ", totalMarks=" + oldTotalMarks + "->" + newTotalMarks +
+               ", reason='" + reason + '\'' +
+               ", revisedAt=" + revisedAt +
+               '}';
+    }
+}
@@ -1,21 +1,29 @@
 package com.example.onlineexamsystem.model;
 
 import java.time.Duration;
-import java.time.LocalDateTime;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Timer class to manage exam duration and timeout.
+ *
+ * <p>The deadline is kept on the monotonic {@link System#nanoTime()} clock, so it is unaffected by wall-clock
+ * changes and has sub-second precision. Reading the remaining time does not allocate. Timers can be paused,
+ * resumed and extended (e.g. for accommodations or proctor interventions); each change cancels the pending
+ * timeout and schedules a new one on a scheduler shared by all timers, instead of a thread per timer.
  */
 public class Timer {
+    private static final ScheduledThreadPoolExecutor SCHEDULER = createScheduler();
+
     private final Duration duration;
-    private LocalDateTime startTime;
-    private ScheduledExecutorService scheduler;
     private final Runnable timeoutCallback;
-    private final AtomicBoolean isRunning = new AtomicBoolean(false);
+    private volatile boolean isRunning = false;
+    private volatile boolean isPaused = false;
+    private volatile long deadlineNanos;   // Valid while running and not paused
+    private volatile long pausedRemainingNanos; // Valid while paused
+    private ScheduledFuture<?> timeoutTask; // Guarded by this
 
     /**
      * Constructor for Timer.
@@ -26,42 +34,102 @@ public class Timer {
     public Timer(Duration duration, Runnable timeoutCallback) {
         this.duration = duration;
         this.timeoutCallback = timeoutCallback;
-        this.scheduler = Executors.newSingleThreadScheduledExecutor();
     }
 
     /**
      * Starts the timer.
      */
-    public void start() {
-        if (isRunning.compareAndSet(false, true)) {
-            this.startTime = LocalDateTime.now();
-            scheduler.schedule(timeoutCallback, duration.toMinutes(), TimeUnit.MINUTES);
-            System.out.println("Timer started for " + duration.toMinutes() + " minutes.");
+    public synchronized void start() {
+        if (isRunning) {
+            return;
         }
+        deadlineNanos = System.nanoTime() + duration.toNanos();
+        isRunning = true;
+        scheduleTimeout(duration.toNanos());
+        System.out.println("Timer started for " + getTimeRemainingFormatted() + ".");
     }
 
     /**
      * Stops the timer.
      */
-    public void stop() {
-        if (isRunning.compareAndSet(true, false)) {
-            scheduler.shutdownNow();
+    public synchronized void stop() {
+        if (isRunning) {
+            isRunning = false;
+            isPaused = false;
+            cancelTimeout();
             System.out.println("Timer stopped.");
         }
     }
 
+    /**
+     * Pauses the timer; the remaining time is frozen until {@link #resume()}.
+     */
+    public synchronized void pause() {
+        if (isRunning && !isPaused) {
+            pausedRemainingNanos = Math.max(0, deadlineNanos - System.nanoTime());
+            isPaused = true;
+            cancelTimeout();
+        }
+    }
+
+    /**
+     * Resumes a paused timer with the time that was remaining when it was paused.
+     */
+    public synchronized void resume() {
+        if (isRunning && isPaused) {
+            deadlineNanos = System.nanoTime() + pausedRemainingNanos;
+            isPaused = false;
+            scheduleTimeout(pausedRemainingNanos);
+        }
+    }
+
+    /**
+     * Grants extra time, moving the deadline (or the frozen remaining time, if paused) later.
+     *
+     * @param extraTime The time to add.
+     * @throws IllegalArgumentException If extraTime is zero or negative.
+     */
+    public synchronized void extend(Duration extraTime) {
+        if (extraTime.isZero() || extraTime.isNegative()) {
+            throw new IllegalArgumentException("Extra time must be positive: " + extraTime);
+        }
+        if (!isRunning) {
+            return;
+        }
+        long extraNanos = extraTime.toNanos();
+        if (isPaused) {
+            pausedRemainingNanos += extraNanos;
+        } else {
+            deadlineNanos += extraNanos;
+            cancelTimeout();
+            scheduleTimeout(deadlineNanos - System.nanoTime());
+        }
+    }
+
+    public boolean isPaused() {
+        return isPaused;
+    }
+
+    /**
+     * Gets the time remaining in nanoseconds, without allocating.
+     *
+     * @return Nanoseconds remaining (0 if the timer is not running or has expired).
+     */
+    public long getRemainingNanos() {
+        if (!isRunning) {
+            return 0;
+        }
+        long remaining = isPaused ? pausedRemainingNanos : deadlineNanos - System.nanoTime();
+        return Math.max(0, remaining);
+    }
+
     /**
      * Gets the time remaining in the timer.
      *
      * @return Duration remaining.
      */
     public Duration getTimeRemaining() {
-        if (!isRunning.get()) {
-            return Duration.ZERO;
-        }
-        Duration elapsed = Duration.between(startTime, LocalDateTime.now());
-        Duration remaining = duration.minus(elapsed);
-        return remaining.isNegative() ? Duration.ZERO : remaining;
+        return Duration.ofNanos(getRemainingNanos());
     }
 
     /**
@@ -70,8 +138,46 @@ public class Timer {
      * @return Formatted time remaining string.
      */
     public String getTimeRemainingFormatted() {
-        long minutes = getTimeRemaining().toMinutes();
-        long seconds = getTimeRemaining().minusMinutes(minutes).getSeconds();
-        return String.format("%02d:%02d", minutes, seconds);
+        long totalSeconds = TimeUnit.NANOSECONDS.toSeconds(getRemainingNanos());
+        return String.format("%02d:%02d", totalSeconds / 60, totalSeconds % 60);
+    }
+
+    private void scheduleTimeout(long delayNanos) {
+        timeoutTask = SCHEDULER.schedule(this::onDeadline, Math.max(0, delayNanos), TimeUnit.NANOSECONDS);
+    }
+
+    private void cancelTimeout() {
+        if (timeoutTask != null) {
+            timeoutTask.cancel(false);
+            timeoutTask = null;
+        }
+    }
+
+    private void onDeadline() {
+        synchronized (this) {
+            if (!isRunning || isPaused) {
+                return; // Stopped or paused after this task was scheduled
+            }
+            long remaining = deadlineNanos - System.nanoTime();
+            if (remaining > 0) {
+                scheduleTimeout(remaining); // Woke up early (deadline moved), wait for the real deadline
+                return;
+            }
+            isRunning = false;
+            timeoutTask = null;
+        }
+        timeoutCallback.run(); // Outside the lock, the callback may take a while
+    }
+
+    private static ScheduledThreadPoolExecutor createScheduler() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(
+                Math.max(2, Runtime.getRuntime().availableProcessors() / 2), r -> {
+                    Thread t = new Thread(r, "exam-timer-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        scheduler.setRemoveOnCancelPolicy(true); // Rescheduled timeouts do not pile up in the queue
+        return scheduler;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,27 @@
+package com.example.onlineexamsystem.persistence;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Storage backend for autosaved answers.
+ */
+public interface AnswerStore {
+
+    /**
+     * Persists a batch of answer changes. Later writes for the same (session, question) replace earlier ones.
+     *
+     * @param batch Session ID -> (question ID -> latest answer).
+     * @throws IOException If the batch cannot be written.
+     */
+    void saveBatch(Map<String, Map<String, String>> batch) throws IOException;
+
+    /**
+     * Loads the latest saved answers of a session.
+     *
+     * @param sessionId The ID of the session.
+     * @return Question ID -> latest answer (empty if nothing was saved).
+     * @throws IOException If the store cannot be read.
+     */
+    Map<String, String> load(String sessionId) throws IOException;
+}
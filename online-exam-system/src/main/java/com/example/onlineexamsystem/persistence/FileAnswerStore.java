@@ -0,0 +1,124 @@
+package com.example.onlineexamsystem.persistence;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * File-backed AnswerStore that appends each batch to a log file with a single write, then fsyncs it.
+ * Each line is {@code sessionId<TAB>questionId<TAB>answer}, with tabs, newlines and backslashes escaped.
+ *
+ * <p>Fsyncs are group-committed: batches appended while another thread is syncing wait for that sync to finish, and
+ * the next sync covers all of them, so concurrent callers share one fsync instead of queueing one each.
+ */
+public class FileAnswerStore implements AnswerStore {
+    private final Path file;
+    private final FileChannel channel;
+    private final Object syncLock = new Object();
+    private long appendedBatches; // Guarded by this
+    private volatile long syncedBatches; // Batches known to be on disk
+    private final AtomicLong syncCount = new AtomicLong();
+
+    /**
+     * Constructor for FileAnswerStore.
+     *
+     * @param file The log file to append to (created if missing).
+     * @throws IOException If the file cannot be opened.
+     */
+    public FileAnswerStore(Path file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public void saveBatch(Map<String, Map<String, String>> batch) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        batch.forEach((sessionId, answers) -> answers.forEach((questionId, answer) ->
+                lines.append(escape(sessionId)).append('\t')
+                        .append(escape(questionId)).append('\t')
+                        .append(answer == null ? "\\0" : escape(answer)).append('\n')));
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        long batchNumber;
+        synchronized (this) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            batchNumber = ++appendedBatches;
+        }
+        synchronized (syncLock) {
+            if (syncedBatches >= batchNumber) {
+                return; // Covered by the sync another caller finished while we waited
+            }
+            long upTo;
+            synchronized (this) {
+                upTo = appendedBatches;
+            }
+            channel.force(false);
+            syncCount.incrementAndGet();
+            syncedBatches = upTo;
+        }
+    }
+
+    /**
+     * Gets the number of fsyncs issued so far.
+     *
+     * @return Fsync count, at most the number of batches saved.
+     */
+    public long getSyncCount() {
+        return syncCount.get();
+    }
+
+    @Override
+    public synchronized Map<String, String> load(String sessionId) throws IOException {
+        Map<String, String> answers = new HashMap<>();
+        String prefix = escape(sessionId) + '\t';
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.startsWith(prefix)) {
+                    continue;
+                }
+                String[] fields = line.split("\t", 3);
+                if (fields.length == 3) {
+                    answers.put(unescape(fields[1]), fields[2].equals("\\0") ? null : unescape(fields[2]));
+                }
+            }
+        }
+        return answers;
+    }
+
+    /**
+     * Closes the underlying file.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String unescape(String value) {
+        StringBuilder out = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                out.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.onlineexamsystem.persistence;
+
+import com.example.onlineexamsystem.model.Exam;
+import com.example.onlineexamsystem.model.ExamResult;
+import com.example.onlineexamsystem.model.Question;
+import com.example.onlineexamsystem.service.ExamSession;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams the results of an exam, with every per-question response, straight to files.
+ *
+ * <p>Sessions are iterated lazily from the exam and written as they are read (at most one block of sessions is held
+ * for the binary format), so memory stays constant regardless of the number of results. Output goes through a FileChannel with a reused
+ * direct buffer. Two formats are supported:
+ * <ul>
+ *   <li>CSV: a results file ({@code session_id,student_id,username,score,total_marks}) and a responses file
+ *       ({@code session_id,question_id,answer}), quoted per RFC 4180.</li>
+ *   <li>Binary: a compact columnar file. After the magic {@code OEXR} and a format version, results are written in
+ *       blocks of up to {@value #BLOCK_ROWS} rows. Each block starts with its row count (0 ends the file) and stores
+ *       one column after another: session IDs, student IDs, scores, total marks, answer counts, then the
+ *       block's question ID dictionary, dictionary indices and answers. Strings are UTF-8 with a varint length;
+ *       a missing answer has length -1.</li>
+ * </ul>
+ */
+public class ResultExporter {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int BLOCK_ROWS = 1024;
+    private static final byte[] MAGIC = {'O', 'E', 'X', 'R'};
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * Exports the submitted results of an exam as CSV.
+     *
+     * @param exam          The exam to export.
+     * @param resultsFile   File for one row per result.
+     * @param responsesFile File for one row per answered question.
+     * @return The number of results exported.
+     * @throws IOException If writing fails.
+     */
+    public long exportCsv(Exam exam, Path resultsFile, Path responsesFile) throws IOException {
+        long exported = 0;
+        try (ChannelOutput results = new ChannelOutput(resultsFile);
+             ChannelOutput responses = new ChannelOutput(responsesFile)) {
+            results.putText("session_id,student_id,username,score,total_marks\n");
+            responses.putText("session_id,question_id,answer\n");
+            StringBuilder line = new StringBuilder(256);
+            for (Iterator<ExamSession> it = exam.sessionIterator(); it.hasNext(); ) {
+                ExamSession session = it.next();
+                ExamResult result = session.getExamResult();
+                if (result == null) {
+                    continue; // Not submitted yet
+                }
+                line.setLength(0);
+                appendCsv(line, session.getSessionId()).append(',');
+                appendCsv(line, session.getStudent().getUserId()).append(',');
+                appendCsv(line, session.getStudent().getUsername()).append(',');
+                line.append(result.getScore()).append(',').append(result.getTotalMarks()).append('\n');
+                results.putText(line);
+                for (Map.Entry<Question, String> answer : session.getStudentAnswers().entrySet()) {
+                    line.setLength(0);
+                    appendCsv(line, session.getSessionId()).append(',');
+                    appendCsv(line, answer.getKey().getQuestionId()).append(',');
+                    appendCsv(line, answer.getValue()).append('\n');
+                    responses.putText(line);
+                }
+                exported++;
+            }
+        }
+        System.out.println("Exported " + exported + " results of exam " + exam.getExamName() + " to " + resultsFile + ".");
+        return exported;
+    }
+
+    /**
+     * Exports the submitted results of an exam in the compact columnar binary format.
+     *
+     * @param exam The exam to export.
+     * @param file The file to write.
+     * @return The number of results exported.
+     * @throws IOException If writing fails.
+     */
+    public long exportBinary(Exam exam, Path file) throws IOException {
+        long exported = 0;
+        try (ChannelOutput out = new ChannelOutput(file)) {
+            out.putBytes(MAGIC, 0, MAGIC.length);
+            out.putInt(FORMAT_VERSION);
+            ExamSession[] block = new ExamSession[BLOCK_ROWS];
+            int rows = 0;
+            for (Iterator<ExamSession> it = exam.sessionIterator(); it.hasNext(); ) {
+                ExamSession session = it.next();
+                if (session.getExamResult() == null) {
+                    continue; // Not submitted yet
+                }
+                block[rows++] = session;
+                if (rows == BLOCK_ROWS) {
+                    writeBlock(out, block, rows);
+                    exported += rows;
+                    rows = 0;
+                }
+            }
+            if (rows > 0) {
+                writeBlock(out, block, rows);
+                exported += rows;
+            }
+            out.putVarInt(0); // End of file
+        }
+        System.out.println("Exported " + exported + " results of exam " + exam.getExamName() + " to " + file + ".");
+        return exported;
+    }
+
+    private static void writeBlock(ChannelOutput out, ExamSession[] block, int rows) throws IOException {
+        out.putVarInt(rows);
+        for (int i = 0; i < rows; i++) {
+            out.putString(block[i].getSessionId());
+        }
+        for (int i = 0; i < rows; i++) {
+            out.putString(block[i].getStudent().getUserId());
+        }
+        for (int i = 0; i < rows; i++) {
+            out.putInt(block[i].getExamResult().getScore());
+        }
+        for (int i = 0; i < rows; i++) {
+            out.putInt(block[i].getExamResult().getTotalMarks());
+        }
+        // Answers are read once per session; the block keeps only the question dictionary and codes
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<Map<Question, String>> answers = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Map<Question, String> sessionAnswers = block[i].getStudentAnswers();
+            answers.add(sessionAnswers);
+            out.putVarInt(sessionAnswers.size());
+            for (Question question : sessionAnswers.keySet()) {
+                dictionary.putIfAbsent(question.getQuestionId(), dictionary.size());
+            }
+        }
+        String[] questionIds = new String[dictionary.size()];
+        dictionary.forEach((id, code) -> questionIds[code] = id);
+        out.putVarInt(questionIds.length);
+        for (String questionId : questionIds) {
+            out.putString(questionId);
+        }
+        for (Map<Question, String> sessionAnswers : answers) {
+            for (Question question : sessionAnswers.keySet()) {
+                out.putVarInt(dictionary.get(question.getQuestionId()));
+            }
+        }
+        for (Map<Question, String> sessionAnswers : answers) {
+            for (String answer : sessionAnswers.values()) {
+                out.putString(answer);
+            }
+        }
+        Arrays.fill(block, 0, rows, null);
+    }
+
+    private static StringBuilder appendCsv(StringBuilder line, String value) {
+        if (value == null) {
+            return line;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            return line.append(value);
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        return line.append('"');
+    }
+
+    /**
+     * Write side of a FileChannel with a reused direct buffer.
+     */
+    private static final class ChannelOutput implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        ChannelOutput(Path file) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        void putText(CharSequence text) throws IOException {
+            byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+            putBytes(bytes, 0, bytes.length);
+        }
+
+        void putString(String value) throws IOException {
+            if (value == null) {
+                putVarInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putVarInt(bytes.length);
+            putBytes(bytes, 0, bytes.length);
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        /**
+         * Writes a zig-zag encoded varint (1 byte for small values, -1 included).
+         */
+        void putVarInt(int value) throws IOException {
+            ensure(5);
+            int zigZag = (value << 1) ^ (value >> 31);
+            while ((zigZag & ~0x7F) != 0) {
+                buffer.put((byte) ((zigZag & 0x7F) | 0x80));
+                zigZag >>>= 7;
+            }
+            buffer.put((byte) zigZag);
+        }
+
+        void putBytes(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                if (!buffer.hasRemaining()) {
+                    drain();
+                }
+                int chunk = Math.min(length, buffer.remaining());
+                buffer.put(bytes, offset, chunk);
+                offset += chunk;
+                length -= chunk;
+            }
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                drain();
+            }
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                drain();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.onlineexamsystem.service;
+
+import com.example.onlineexamsystem.persistence.AnswerStore;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Coalesces answer changes in memory and writes them to an AnswerStore in batches.
+ *
+ * <p>Only the latest answer per (session, question) is kept between flushes, so a candidate changing an answer
+ * ten times costs one write. Dirty sessions are flushed every {@code flushInterval}, or earlier once
+ * {@code flushThreshold} answers are pending. {@link #flushSession(String)} writes one session synchronously and
+ * is called by ExamSession before {@code submit()} returns. Session flushes do not wait for each other, so a store
+ * that group-commits (such as FileAnswerStore) can cover the submits of a whole sitting with a few fsyncs.
+ */
+public class AnswerAutosave {
+    private final AnswerStore store;
+    private final int flushThreshold;
+    private final Map<String, Map<String, String>> dirty = new ConcurrentHashMap<>(); // Session ID -> (question ID -> answer)
+    private final AtomicInteger pendingAnswers = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final ReentrantLock writeLock = new ReentrantLock(); // Drain and write happen together, so batch flushes never overlap
+    private volatile BatchWrite batchInFlight; // The batch flush being written, if any
+    private final ScheduledExecutorService flusher;
+
+    /**
+     * Constructor for AnswerAutosave.
+     *
+     * @param store          The storage backend.
+     * @param flushInterval  How often dirty sessions are flushed.
+     * @param flushThreshold Number of pending answers that triggers an early flush.
+     */
+    public AnswerAutosave(AnswerStore store, Duration flushInterval, int flushThreshold) {
+        this.store = store;
+        this.flushThreshold = flushThreshold;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "answer-autosave");
+            t.setDaemon(true);
+            return t;
+        });
+        long intervalMillis = Math.max(1, flushInterval.toMillis());
+        flusher.scheduleWithFixedDelay(this::flushQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Records the latest answer for a question; replaces any pending answer for the same question.
+     *
+     * @param sessionId  The ID of the session.
+     * @param questionId The ID of the question.
+     * @param answer     The answer.
+     */
+    public void recordAnswer(String sessionId, String questionId, String answer) {
+        dirty.compute(sessionId, (id, answers) -> {
+            if (answers == null) {
+                answers = new HashMap<>();
+            }
+            if (!answers.containsKey(questionId)) {
+                pendingAnswers.incrementAndGet();
+            }
+            answers.put(questionId, answer);
+            return answers;
+        });
+        if (pendingAnswers.get() >= flushThreshold && flushScheduled.compareAndSet(false, true)) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * Flushes every dirty session to the store.
+     *
+     * @throws IOException If the store rejects the batch (the batch is kept and retried on the next flush).
+     */
+    public void flush() throws IOException {
+        writeLock.lock();
+        BatchWrite inFlight = new BatchWrite();
+        batchInFlight = inFlight; // Published before any session is drained, see flushSession
+        try {
+            flushScheduled.set(false);
+            Map<String, Map<String, String>> batch = new HashMap<>();
+            Iterator<String> sessionIds = dirty.keySet().iterator();
+            while (sessionIds.hasNext()) {
+                String sessionId = sessionIds.next();
+                inFlight.sessionIds.add(sessionId);
+                Map<String, String> answers = dirty.remove(sessionId);
+                if (answers != null) {
+                    batch.put(sessionId, answers);
+                }
+            }
+            write(batch);
+        } finally {
+            batchInFlight = null;
+            inFlight.done.countDown(); // A failed batch is back in dirty by now
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Synchronously flushes one session. Returns only once all answers recorded for it so far are persisted,
+     * including answers taken by a batch flush that is still being written. Answers must no longer change while
+     * this runs (ExamSession calls it once the session is sealed).
+     *
+     * @param sessionId The ID of the session.
+     * @throws UncheckedIOException If the answers cannot be written; they stay pending and are retried later.
+     */
+    public void flushSession(String sessionId) {
+        Map<String, String> answers;
+        while (true) {
+            awaitBatchWith(sessionId); // Older answers taken by a batch must not land after the ones written here
+            answers = dirty.remove(sessionId);
+            if (answers != null) {
+                break;
+            }
+            // A batch that failed puts the answers back before it is unpublished, so check the batch first
+            BatchWrite inFlight = batchInFlight;
+            if ((inFlight == null || !inFlight.sessionIds.contains(sessionId)) && !dirty.containsKey(sessionId)) {
+                return; // Everything recorded for the session is persisted
+            }
+        }
+        Map<String, Map<String, String>> batch = new HashMap<>();
+        batch.put(sessionId, answers);
+        try {
+            write(batch);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not persist answers for session " + sessionId, e);
+        }
+    }
+
+    /**
+     * Waits for the batch flush in progress if it took answers of a session.
+     */
+    private void awaitBatchWith(String sessionId) {
+        BatchWrite inFlight = batchInFlight;
+        if (inFlight == null || !inFlight.sessionIds.contains(sessionId)) {
+            return;
+        }
+        boolean interrupted = false;
+        while (true) {
+            try {
+                inFlight.done.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true; // The submit must not return before its answers are persisted
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Flushes everything and stops the background flusher.
+     *
+     * @throws IOException If the final flush fails.
+     */
+    public void shutdown() throws IOException {
+        flusher.shutdown();
+        flush();
+    }
+
+    public int getPendingAnswerCount() {
+        return pendingAnswers.get();
+    }
+
+    private void write(Map<String, Map<String, String>> batch) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        int written = batch.values().stream().mapToInt(Map::size).sum();
+        try {
+            store.saveBatch(batch);
+            pendingAnswers.addAndGet(-written);
+        } catch (IOException e) {
+            // Put the batch back without overwriting newer answers recorded meanwhile
+            batch.forEach((sessionId, answers) -> dirty.merge(sessionId, answers, (newer, older) -> {
+                older.forEach((questionId, answer) -> {
+                    if (newer.putIfAbsent(questionId, answer) != null) {
+                        pendingAnswers.decrementAndGet(); // Superseded, no longer pending twice
+                    }
+                });
+                return newer;
+            }));
+            throw e;
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            System.out.println("Autosave flush failed, will retry: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sessions drained by a batch flush, and a latch released once the batch is written or put back.
+     */
+    private static final class BatchWrite {
+        final Set<String> sessionIds = ConcurrentHashMap.newKeySet();
+        final CountDownLatch done = new CountDownLatch(1);
+    }
+}
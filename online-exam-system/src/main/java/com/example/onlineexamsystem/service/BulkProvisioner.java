@@ -0,0 +1,303 @@
+package com.example.onlineexamsystem.service;
+
+import com.example.onlineexamsystem.model.Exam;
+import com.example.onlineexamsystem.model.QuestionPool;
+import com.example.onlineexamsystem.user.AdminUser;
+import com.example.onlineexamsystem.user.StudentUser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Creates students and exams in bulk from CSV files or streams, e.g. to onboard a whole term at once.
+ *
+ * <p>The input is read on the calling thread and cut into batches of lines; batches are parsed and applied by a
+ * fixed pool of worker threads. At most two batches per worker are in flight, so memory stays bounded for any input
+ * size. Rows are added without per-user console output; one summary line is printed per run. Fields may be quoted
+ * per RFC 4180 but cannot span lines. A first row whose first field is a column name is skipped.
+ * <ul>
+ *   <li>Students: {@code username,password}. Usernames that already exist are skipped.</li>
+ *   <li>Exams: {@code exam_name,duration_minutes[,pool_name[,random_question_count]]}, where the pool is looked up by
+ *       name among the creating admin's pools. Durations must be positive.</li>
+ * </ul>
+ */
+public class BulkProvisioner {
+    private enum Outcome { CREATED, DUPLICATE, INVALID }
+
+    private final ExamManagementSystem system;
+    private final int batchSize;
+    private final int workerThreads;
+    private final ExecutorService workers;
+
+    /**
+     * Constructor for BulkProvisioner.
+     *
+     * @param system        The system users and exams are added to.
+     * @param batchSize     Rows per batch.
+     * @param workerThreads Number of threads applying batches.
+     */
+    public BulkProvisioner(ExamManagementSystem system, int batchSize, int workerThreads) {
+        this.system = system;
+        this.batchSize = Math.max(1, batchSize);
+        this.workerThreads = Math.max(1, workerThreads);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(this.workerThreads, r -> {
+            Thread t = new Thread(r, "bulk-provisioning-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Creates the students listed in a CSV file.
+     *
+     * @param file UTF-8 file with {@code username,password} rows.
+     * @return Counts of created, duplicate and invalid rows.
+     * @throws IOException If the file cannot be read.
+     */
+    public ProvisioningReport provisionStudents(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return provisionStudents(reader);
+        }
+    }
+
+    /**
+     * Creates the students listed in a CSV stream.
+     *
+     * @param reader Source of {@code username,password} rows.
+     * @return Counts of created, duplicate and invalid rows.
+     * @throws IOException If the stream cannot be read.
+     */
+    public ProvisioningReport provisionStudents(Reader reader) throws IOException {
+        ProvisioningReport report = run(reader, "username", fields -> {
+            if (fields.length < 2 || fields[0].isEmpty() || fields[1].isEmpty()) {
+                return Outcome.INVALID;
+            }
+            return system.addUserIfAbsent(new StudentUser(fields[0], fields[1])) ? Outcome.CREATED : Outcome.DUPLICATE;
+        });
+        System.out.println("Provisioned students: " + report);
+        return report;
+    }
+
+    /**
+     * Creates the exams listed in a CSV file, owned by an admin.
+     *
+     * @param admin The admin creating the exams.
+     * @param file  UTF-8 file with {@code exam_name,duration_minutes[,pool_name[,random_question_count]]} rows.
+     * @return Counts of created and invalid rows.
+     * @throws IOException If the file cannot be read.
+     */
+    public ProvisioningReport provisionExams(AdminUser admin, Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return provisionExams(admin, reader);
+        }
+    }
+
+    /**
+     * Creates the exams listed in a CSV stream, owned by an admin. Exams are created unpublished.
+     *
+     * @param admin  The admin creating the exams.
+     * @param reader Source of {@code exam_name,duration_minutes[,pool_name[,random_question_count]]} rows.
+     * @return Counts of created and invalid rows.
+     * @throws IOException If the stream cannot be read.
+     */
+    public ProvisioningReport provisionExams(AdminUser admin, Reader reader) throws IOException {
+        Map<String, QuestionPool> poolsByName = new HashMap<>();
+        for (QuestionPool pool : admin.getQuestionPools()) {
+            poolsByName.putIfAbsent(pool.getPoolName(), pool);
+        }
+        ProvisioningReport report = run(reader, "exam_name", fields -> {
+            try {
+                if (fields.length < 2 || fields[0].isEmpty()) {
+                    return Outcome.INVALID;
+                }
+                Duration duration = Duration.ofMinutes(Long.parseLong(fields[1]));
+                if (duration.isNegative() || duration.isZero()) {
+                    return Outcome.INVALID;
+                }
+                QuestionPool pool = null;
+                if (fields.length > 2 && !fields[2].isEmpty()) {
+                    pool = poolsByName.get(fields[2]);
+                    if (pool == null) {
+                        return Outcome.INVALID;
+                    }
+                }
+                Exam exam = new Exam(fields[0], duration, admin, pool);
+                if (fields.length > 3 && !fields[3].isEmpty()) {
+                    exam.setRandomQuestionCount(Integer.parseInt(fields[3]));
+                }
+                system.addExam(exam);
+                return Outcome.CREATED;
+            } catch (NumberFormatException e) {
+                return Outcome.INVALID;
+            }
+        });
+        System.out.println("Provisioned exams: " + report);
+        return report;
+    }
+
+    /**
+     * Stops the worker threads.
+     */
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private ProvisioningReport run(Reader reader, String headerColumn, Function<String[], Outcome> rowHandler)
+            throws IOException {
+        long started = System.nanoTime();
+        AtomicLong created = new AtomicLong();
+        AtomicLong duplicates = new AtomicLong();
+        AtomicLong invalid = new AtomicLong();
+        int maxInFlight = workerThreads * 2;
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        List<String> batch = new ArrayList<>(batchSize);
+        boolean firstRow = true;
+        try {
+            for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+                if (firstRow) {
+                    firstRow = false;
+                    if (parseCsvLine(line)[0].equalsIgnoreCase(headerColumn)) {
+                        continue;
+                    }
+                }
+                if (line.isEmpty()) {
+                    continue;
+                }
+                batch.add(line);
+                if (batch.size() == batchSize) {
+                    dispatch(batch, inFlight, rowHandler, created, duplicates, invalid);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                dispatch(batch, inFlight, rowHandler, created, duplicates, invalid);
+            }
+            inFlight.acquire(maxInFlight); // Wait for the last batches
+            inFlight.release(maxInFlight);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while provisioning.", e);
+        }
+        return new ProvisioningReport(created.get(), duplicates.get(), invalid.get(),
+                Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    private void dispatch(List<String> batch, Semaphore inFlight, Function<String[], Outcome> rowHandler,
+                          AtomicLong created, AtomicLong duplicates, AtomicLong invalid) throws InterruptedException {
+        inFlight.acquire(); // Blocks the reader while every worker is busy
+        workers.execute(() -> {
+            try {
+                long batchCreated = 0;
+                long batchDuplicates = 0;
+                long batchInvalid = 0;
+                for (String line : batch) {
+                    Outcome outcome;
+                    try {
+                        outcome = rowHandler.apply(parseCsvLine(line));
+                    } catch (RuntimeException e) {
+                        outcome = Outcome.INVALID;
+                    }
+                    if (outcome == Outcome.CREATED) {
+                        batchCreated++;
+                    } else if (outcome == Outcome.DUPLICATE) {
+                        batchDuplicates++;
+                    } else {
+                        batchInvalid++;
+                    }
+                }
+                created.addAndGet(batchCreated);
+                duplicates.addAndGet(batchDuplicates);
+                invalid.addAndGet(batchInvalid);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    /**
+     * Splits a CSV line into trimmed fields, honouring double quotes.
+     */
+    static String[] parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields.toArray(new String[0]);
+    }
+
+    /**
+     * Outcome of a provisioning run.
+     */
+    public static final class ProvisioningReport {
+        private final long created;
+        private final long duplicates;
+        private final long invalid;
+        private final Duration elapsed;
+
+        ProvisioningReport(long created, long duplicates, long invalid, Duration elapsed) {
+            this.created = created;
+            this.duplicates = duplicates;
+            this.invalid = invalid;
+            this.elapsed = elapsed;
+        }
+
+        public long getCreated() {
+            return created;
+        }
+
+        public long getDuplicates() {
+            return duplicates;
+        }
+
+        public long getInvalid() {
+            return invalid;
+        }
+
+        public Duration getElapsed() {
+            return elapsed;
+        }
+
+        @Override
+        public String toString() {
+            return created + " created, " + duplicates + " duplicates, " + invalid + " invalid rows in "
+                    + elapsed.toMillis() + " ms";
+        }
+    }
+}
@@ -6,6 +6,8 @@ import com.example.onlineexamsystem.user.StudentUser;
 import com.example.onlineexamsystem.user.User; // Correct import for User class
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 // ... (rest of ExamManagementSystem.java code - no changes needed in code logic)
 
@@ -14,8 +16,19 @@ import java.util.List;
  * Manages users, exams, and overall system operations.
  */
 public class ExamManagementSystem {
-    private final List<User> users = new ArrayList<>();
-    private final List<Exam> exams = new ArrayList<>();
+    private final Map<String, User> usersByName = new ConcurrentHashMap<>(); // Username -> user, for login
+    private final Map<String, Exam> exams = new ConcurrentHashMap<>(); // Exam ID -> exam
+    private final Map<String, ExamSession> sessions = new ConcurrentHashMap<>(); // Session ID -> session
+    private final RegradeEngine regradeEngine = new RegradeEngine(this);
+    private final QuestionSearchIndex questionSearchIndex = new QuestionSearchIndex(0.8); // Shared by every pool
+
+    public RegradeEngine getRegradeEngine() {
+        return regradeEngine;
+    }
+
+    public QuestionSearchIndex getQuestionSearchIndex() {
+        return questionSearchIndex;
+    }
 
     /**
      * Creates a new Admin user.
@@ -23,10 +36,13 @@ public class ExamManagementSystem {
      * @param username Admin username.
      * @param password Admin password.
      * @return The created AdminUser.
+     * @throws IllegalArgumentException If the username is already taken.
      */
     public AdminUser createAdmin(String username, String password) {
-        AdminUser admin = new AdminUser(username, password);
-        users.add(admin);
+        AdminUser admin = new AdminUser(username, password, this);
+        if (!addUserIfAbsent(admin)) {
+            throw new IllegalArgumentException("Username already exists: " + username);
+        }
         System.out.println("Admin User created: " + username);
         return admin;
     }
@@ -37,21 +53,107 @@ public class ExamManagementSystem {
      * @param username Student username.
      * @param password Student password.
      * @return The created StudentUser.
+     * @throws IllegalArgumentException If the username is already taken.
      */
     public StudentUser createStudent(String username, String password) {
         StudentUser student = new StudentUser(username, password);
-        users.add(student);
+        if (!addUserIfAbsent(student)) {
+            throw new IllegalArgumentException("Username already exists: " + username);
+        }
         System.out.println("Student User created: " + username);
         return student;
     }
 
+    /**
+     * Authenticates a user by username and password.
+     *
+     * @param username Username to look up.
+     * @param password Password to check.
+     * @return The logged in User, or null if the credentials are invalid.
+     */
+    public User authenticate(String username, String password) {
+        User user = usersByName.get(username);
+        if (user == null || !user.checkPassword(password)) {
+            return null;
+        }
+        return user.login(this) ? user : null;
+    }
+
+    /**
+     * Registers an existing user with this system (e.g. a user migrated from another node).
+     *
+     * @param user The user to add.
+     */
+    public void addUser(User user) {
+        usersByName.put(user.getUsername(), user);
+    }
+
+    /**
+     * Registers a user unless the username is taken, without console output (used by bulk provisioning).
+     *
+     * @param user The user to add.
+     * @return True if the user was added, false if the username already exists.
+     */
+    public boolean addUserIfAbsent(User user) {
+        return usersByName.putIfAbsent(user.getUsername(), user) == null;
+    }
+
+    /**
+     * Removes a user from this system.
+     *
+     * @param username Username of the user to remove.
+     * @return The removed User, or null if no such user exists.
+     */
+    public User removeUser(String username) {
+        return usersByName.remove(username);
+    }
+
+    /**
+     * Gets a user by username.
+     *
+     * @param username Username to look up.
+     * @return The User if found, null otherwise.
+     */
+    public User getUserByUsername(String username) {
+        return usersByName.get(username);
+    }
+
+    /**
+     * Gets a list of all users in the system.
+     *
+     * @return List of all users.
+     */
+    public List<User> getAllUsers() {
+        return new ArrayList<>(usersByName.values());
+    }
+
     /**
      * Adds an exam to the system's list of exams.
      *
      * @param exam The exam to be added.
      */
     public void addExam(Exam exam) {
-        exams.add(exam);
+        exams.put(exam.getExamId(), exam);
+    }
+
+    /**
+     * Removes an exam from the system.
+     *
+     * @param examId The ID of the exam.
+     * @return The removed Exam, or null if no such exam exists.
+     */
+    public Exam removeExam(String examId) {
+        return exams.remove(examId);
+    }
+
+    /**
+     * Gets an exam by its ID.
+     *
+     * @param examId The ID of the exam.
+     * @return The Exam if found, null otherwise.
+     */
+    public Exam getExamById(String examId) {
+        return exams.get(examId);
     }
 
     /**
@@ -60,6 +162,76 @@ public class ExamManagementSystem {
      * @return List of all exams.
      */
     public List<Exam> getAllExams() {
-        return new ArrayList<>(exams); // Return a copy to prevent external modification
+        return new ArrayList<>(exams.values()); // Return a copy to prevent external modification
+    }
+
+    /**
+     * Starts an exam for a student and registers the session so it can be looked up by ID.
+     *
+     * @param student The student taking the exam.
+     * @param exam    The exam to take.
+     * @return The created ExamSession, or null if the student cannot start the exam.
+     */
+    public ExamSession startExam(StudentUser student, Exam exam) {
+        ExamSession session = student.startExam(exam);
+        if (session != null) {
+            registerSession(session);
+        }
+        return session;
+    }
+
+    /**
+     * Starts an exam for a student whose admission the caller has already checked with the exam's scheduler, and
+     * registers the session so it can be looked up by ID.
+     *
+     * @param student   The student taking the exam.
+     * @param exam      The exam to take.
+     * @param admission The scheduler's admission for this student (ADMITTED if the exam has no scheduler).
+     * @return The created ExamSession, or null if the student cannot start the exam.
+     */
+    public ExamSession startExam(StudentUser student, Exam exam, ExamScheduler.Admission admission) {
+        ExamSession session = student.startExam(exam, admission);
+        if (session != null) {
+            registerSession(session);
+        }
+        return session;
+    }
+
+    /**
+     * Registers an existing exam session so it can be looked up by ID.
+     *
+     * @param session The session to register.
+     */
+    public void registerSession(ExamSession session) {
+        sessions.put(session.getSessionId(), session);
+    }
+
+    /**
+     * Removes a registered exam session.
+     *
+     * @param sessionId The ID of the session.
+     * @return The removed ExamSession, or null if no such session is registered.
+     */
+    public ExamSession removeSession(String sessionId) {
+        return sessions.remove(sessionId);
+    }
+
+    /**
+     * Gets a list of all registered exam sessions.
+     *
+     * @return List of all sessions.
+     */
+    public List<ExamSession> getAllSessions() {
+        return new ArrayList<>(sessions.values());
+    }
+
+    /**
+     * Gets a registered exam session by its ID.
+     *
+     * @param sessionId The ID of the session.
+     * @return The ExamSession if found, null otherwise.
+     */
+    public ExamSession getSessionById(String sessionId) {
+        return sessions.get(sessionId);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,163 @@
+package com.example.onlineexamsystem.service;
+
+import com.example.onlineexamsystem.model.ExamWindow;
+import com.example.onlineexamsystem.user.StudentUser;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Function;
+
+/**
+ * Spreads the candidates of an exam over the start slots of its window and admits each one only during their slot,
+ * so that starts (and with them timeouts and grading) are spread evenly instead of arriving at once.
+ *
+ * <p>Candidates are assigned by hashing a key: the user ID by default, or e.g. a room or cohort so that a group
+ * starts together. Only slots that have not ended yet are considered, so a candidate who first shows up halfway
+ * through the window is hashed over the remaining slots. If the hashed slot is full, the next remaining slot with
+ * room is used. Each slot holds at most
+ * {@link ExamWindow#getSlotCapacity()} candidates, which caps the starts per slot on the node running the exam.
+ * A candidate who finds every slot full is not recorded, so rejected attempts do not grow the assignment table.
+ * Every candidate still gets the exam's full duration from their own start.
+ */
+public class ExamScheduler {
+    /**
+     * Outcome of an admission check.
+     */
+    public enum Admission {
+        /** The candidate's slot has started, they may start now. */
+        ADMITTED,
+        /** The candidate's slot has not started yet. */
+        TOO_EARLY,
+        /** The candidate's slot has ended. */
+        MISSED,
+        /** The window has closed. */
+        CLOSED,
+        /** Every slot that has not ended yet is full. */
+        FULL
+    }
+
+    private static final int UNASSIGNED = -1;
+
+    private final ExamWindow window;
+    private final Function<StudentUser, String> assignmentKey;
+    private final AtomicIntegerArray slotLoad;
+    private final Map<String, Integer> slotsByStudent = new ConcurrentHashMap<>(); // User ID -> slot
+
+    /**
+     * Constructor that assigns candidates to slots by user ID.
+     *
+     * @param window The exam window.
+     */
+    public ExamScheduler(ExamWindow window) {
+        this(window, StudentUser::getUserId);
+    }
+
+    /**
+     * Constructor for ExamScheduler.
+     *
+     * @param window        The exam window.
+     * @param assignmentKey Key hashed to pick a candidate's slot (e.g. user ID, room or cohort).
+     */
+    public ExamScheduler(ExamWindow window, Function<StudentUser, String> assignmentKey) {
+        this.window = window;
+        this.assignmentKey = assignmentKey;
+        this.slotLoad = new AtomicIntegerArray(window.getSlotCount());
+    }
+
+    public ExamWindow getWindow() {
+        return window;
+    }
+
+    /**
+     * Checks whether a candidate may start the exam now, assigning them a slot on first contact.
+     *
+     * @param student The candidate.
+     * @param now     The current time.
+     * @return The admission outcome.
+     */
+    public Admission admit(StudentUser student, Instant now) {
+        if (!now.isBefore(window.getClosesAt())) {
+            return Admission.CLOSED;
+        }
+        int slot = assign(student, now);
+        if (slot == UNASSIGNED) {
+            return Admission.FULL;
+        }
+        if (now.isBefore(window.getSlotStart(slot))) {
+            return Admission.TOO_EARLY;
+        }
+        return now.isBefore(window.getSlotEnd(slot)) ? Admission.ADMITTED : Admission.MISSED;
+    }
+
+    /**
+     * Gets the start time of the slot a candidate was assigned by {@link #admit}.
+     *
+     * @param student The candidate.
+     * @return The time from which the candidate may start, or null if they have no slot.
+     */
+    public Instant getAssignedStart(StudentUser student) {
+        Integer slot = slotsByStudent.get(student.getUserId());
+        return slot == null ? null : window.getSlotStart(slot);
+    }
+
+    /**
+     * Gets the number of candidates assigned to a slot.
+     *
+     * @param slot Index of the slot.
+     * @return Candidates assigned.
+     */
+    public int getSlotLoad(int slot) {
+        return slotLoad.get(slot);
+    }
+
+    private int assign(StudentUser student, Instant now) {
+        Integer slot = slotsByStudent.computeIfAbsent(student.getUserId(), id -> {
+            int claimed = claimSlot(assignmentKey.apply(student), firstOpenSlot(now));
+            return claimed == UNASSIGNED ? null : claimed; // Not cached, the next attempt probes again
+        });
+        return slot == null ? UNASSIGNED : slot;
+    }
+
+    /**
+     * Gets the first slot that has not ended at a given time (the slot count once the last one has ended).
+     */
+    private int firstOpenSlot(Instant now) {
+        if (!now.isAfter(window.getOpensAt())) {
+            return 0;
+        }
+        long elapsed = Duration.between(window.getOpensAt(), now).toNanos() / window.getSlotLength().toNanos();
+        return (int) Math.min(elapsed, slotLoad.length());
+    }
+
+    /**
+     * Claims a place in the hashed slot among the slots from firstSlot on, or the next one of them with room.
+     */
+    private int claimSlot(String key, int firstSlot) {
+        int remaining = slotLoad.length() - firstSlot;
+        if (remaining <= 0) {
+            return UNASSIGNED;
+        }
+        int preferred = Math.floorMod(mix(key.hashCode()), remaining);
+        for (int probe = 0; probe < remaining; probe++) {
+            int slot = firstSlot + (preferred + probe) % remaining;
+            int load = slotLoad.get(slot);
+            while (load < window.getSlotCapacity()) {
+                if (slotLoad.compareAndSet(slot, load, load + 1)) {
+                    return slot;
+                }
+                load = slotLoad.get(slot);
+            }
+        }
+        return UNASSIGNED;
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b; // Spreads sequential IDs and short room names over the slots
+        h ^= h >>> 13;
+        return h;
+    }
+}
@@ -1,27 +1,64 @@
 package com.example.onlineexamsystem.service;
 
+import com.example.onlineexamsystem.adaptive.AbilityEstimate;
+import com.example.onlineexamsystem.adaptive.AdaptiveTest;
+import com.example.onlineexamsystem.id.Ids;
 import com.example.onlineexamsystem.model.*;
 import com.example.onlineexamsystem.model.Timer;
 import com.example.onlineexamsystem.user.StudentUser;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Represents a student's session while taking an exam.
+ *
+ * <p>The student's thread and the timer thread both act on a session, so its lifecycle is an explicit
+ * {@link SessionState} machine driven by compare-and-set: only one submit (the student's or the timeout's) wins the
+ * move to SUBMITTING, which freezes the session: its end time is recorded and no new answer is accepted. Grading is
+ * then claimed once, by the thread that froze it or, after a timeout handed it to the exam's {@link GradingPipeline},
+ * by a grading worker or the student's own submit; the others wait for its result. Answers live in one atomic slot
+ * per question; grading seals every slot, so an answer either lands before the seal and is scored, or is rejected.
  */
 public class ExamSession {
-    private final String sessionId;
+    private static final String SEALED = new String("<sealed>"); // Compared by identity, never a real answer
+
+    private final long id;
+    private String sessionId; // String form, formatted on first use
     private final StudentUser student;
     private final Exam exam;
+    private final ExamSnapshot snapshot;
     private final LocalDateTime startTime;
-    private LocalDateTime endTime;
-    private final Map<Question, String> studentAnswers = new LinkedHashMap<>(); // Keep order of questions
-    private ExamResult examResult;
-    private int currentQuestionIndex = 0;
-    private List<Question> questionsForExam;
-    private Timer examTimer;
-    private final AtomicBoolean isSubmitted = new AtomicBoolean(false);
+    private volatile LocalDateTime endTime;
+    private final AtomicReference<SessionState> state = new AtomicReference<>(SessionState.NOT_STARTED);
+    private final CompletableFuture<ExamResult> resultFuture = new CompletableFuture<>();
+    private final AtomicBoolean gradingClaimed = new AtomicBoolean();
+    private final AtomicBoolean gradingGaveUp = new AtomicBoolean(); // Claim released after a failed autosave flush
+    private volatile long frozenAtNanos; // Monotonic time of the freeze, for pipeline metrics
+    private volatile ExamResult examResult;
+    private final AtomicInteger currentQuestionIndex = new AtomicInteger();
+    private volatile List<Question> questionsForExam; // Immutable, replaced when an adaptive session grows
+    private volatile AtomicReferenceArray<String> answerSlots; // Aligned with questionsForExam, released on archive
+    private final AtomicInteger writersInFlight = new AtomicInteger();
+    private volatile Map<Question, String> submittedAnswers; // Sealed answers, released on archive or when stored off-heap
+    private final AnswerMatrix answerMatrix; // The exam's off-heap answer store when the session started, or null
+    private final int answerMatrixRow;       // Row reserved in answerMatrix (-1 without one)
+    private volatile Timer examTimer;
+    private final AnswerAutosave answerAutosave;
+    private AdaptiveTest adaptiveTest; // Null unless the exam is adaptive; only used by the thread that wins a move
+    private volatile SessionArchive archive; // Set once the session is archived
 
 
     /**
@@ -31,19 +68,49 @@ public class ExamSession {
      * @param exam    The exam being taken.
      */
     public ExamSession(StudentUser student, Exam exam) {
-        this.sessionId = UUID.randomUUID().toString();
+        this.id = Ids.next();
         this.student = student;
         this.exam = exam;
         this.startTime = LocalDateTime.now();
-        this.questionsForExam = exam.getExamQuestions();
-        if (this.questionsForExam.isEmpty()) {
+        this.snapshot = exam.getSnapshot(); // Later edits to the exam do not affect this session
+        if (snapshot == null) {
+            throw new IllegalStateException("Exam has no questions.");
+        }
+        List<Question> questions;
+        int slots;
+        if (snapshot.isAdaptive()) {
+            this.adaptiveTest = new AdaptiveTest(snapshot.getAdaptiveItemBank(), snapshot.getAdaptiveTestLength());
+            Question first = adaptiveTest.first();
+            questions = first != null ? Collections.singletonList(first) : Collections.emptyList();
+            slots = Math.max(1, snapshot.getAdaptiveTestLength());
+        } else {
+            this.adaptiveTest = null;
+            questions = Collections.unmodifiableList(snapshot.sampleQuestions(ThreadLocalRandom.current()));
+            slots = questions.size();
+        }
+        if (questions.isEmpty()) {
             throw new IllegalStateException("Exam has no questions."); // Prevent starting session with no questions
         }
+        this.questionsForExam = questions;
+        for (Question question : questions) {
+            if (!snapshot.isFixedQuestion(question.getQuestionId())) {
+                exam.indexDrawnQuestion(this, question); // Question-to-session index used by regrades
+            }
+        }
+        this.answerSlots = new AtomicReferenceArray<>(slots);
+        this.answerMatrix = exam.getAnswerMatrix();
+        this.answerMatrixRow = answerMatrix != null ? answerMatrix.reserveRow(this, slots) : -1;
         this.examTimer = new Timer(exam.getDuration(), this::onExamTimeout);
+        this.answerAutosave = exam.getAnswerAutosave();
     }
 
     public String getSessionId() {
-        return sessionId;
+        String formatted = sessionId;
+        if (formatted == null) {
+            formatted = Ids.format(id);
+            sessionId = formatted; // Racing readers format the same value
+        }
+        return formatted;
     }
 
     public StudentUser getStudent() {
@@ -54,6 +121,15 @@ public class ExamSession {
         return exam;
     }
 
+    /**
+     * Gets the version of the exam this session was started on.
+     *
+     * @return The compiled exam snapshot.
+     */
+    public ExamSnapshot getSnapshot() {
+        return snapshot;
+    }
+
     public LocalDateTime getStartTime() {
         return startTime;
     }
@@ -62,22 +138,83 @@ public class ExamSession {
         return endTime;
     }
 
+    /**
+     * Gets the student's answers in question order. Once submitted these are the sealed answers that were scored;
+     * before that it is a snapshot of the answers given so far.
+     *
+     * @return Map of question to answer.
+     */
     public Map<Question, String> getStudentAnswers() {
-        return studentAnswers;
+        if (state.get() == SessionState.SUBMITTING) {
+            awaitResult(); // Answers are being sealed
+        }
+        Map<Question, String> submitted = this.submittedAnswers;
+        if (submitted != null) {
+            return submitted;
+        }
+        if (answerMatrix != null && answerMatrix.isPublished(answerMatrixRow)) {
+            return answerMatrix.readRow(answerMatrixRow);
+        }
+        SessionArchive archived = this.archive;
+        if (archived != null) {
+            // Rebuild from the archived record (reloaded from disk if it was spilled)
+            ArchivedSession record = archived.get(getSessionId());
+            Map<Question, String> answers = new LinkedHashMap<>();
+            for (int i = 0; i < record.getQuestionCount(); i++) {
+                if (record.getAnswer(i) != null) {
+                    Question question = snapshot.findQuestion(record.getQuestionId(i));
+                    if (question != null) {
+                        answers.put(question, record.getAnswer(i));
+                    }
+                }
+            }
+            return answers;
+        }
+        List<Question> questions = questionsForExam;
+        AtomicReferenceArray<String> slots = answerSlots;
+        Map<Question, String> answers = new LinkedHashMap<>();
+        for (int i = 0; slots != null && i < questions.size(); i++) {
+            String answer = slots.get(i);
+            if (answer == SEALED) {
+                awaitResult(); // A submit started while we were reading, return what it sealed
+                return getStudentAnswers();
+            }
+            if (answer != null) {
+                answers.put(questions.get(i), answer);
+            }
+        }
+        return answers;
+    }
+
+    public boolean isArchived() {
+        return archive != null;
     }
 
     public ExamResult getExamResult() {
         return examResult;
     }
 
+    public SessionState getState() {
+        return state.get();
+    }
+
+    /**
+     * Checks whether the session has been submitted (or a submit is in progress).
+     *
+     * @return True once no more answers are accepted.
+     */
     public boolean isSubmitted() {
-        return isSubmitted.get();
+        SessionState current = state.get();
+        return current == SessionState.SUBMITTING || current == SessionState.SUBMITTED;
     }
 
     /**
      * Starts the exam session, including the timer.
      */
     public void start() {
+        if (!state.compareAndSet(SessionState.NOT_STARTED, SessionState.ACTIVE)) {
+            return; // Already started or submitted
+        }
         System.out.println("Exam session started for student: " + student.getUsername() + ", Exam: " + exam.getExamName());
         examTimer.start();
         displayCurrentQuestion();
@@ -89,36 +226,165 @@ public class ExamSession {
      * @return The current Question object.
      */
     public Question getCurrentQuestion() {
-        if (currentQuestionIndex < questionsForExam.size()) {
-            return questionsForExam.get(currentQuestionIndex);
+        List<Question> questions = questionsForExam;
+        int index = currentQuestionIndex.get();
+        if (index < questions.size()) {
+            return questions.get(index);
         }
         return null; // No more questions
     }
 
+    /**
+     * Finds a question of this session by its ID.
+     *
+     * @param questionId The ID of the question.
+     * @return The Question if it is part of this session, null otherwise.
+     */
+    public Question findQuestion(String questionId) {
+        for (Question question : questionsForExam) {
+            if (question.getQuestionId().equals(questionId)) {
+                return question;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the running ability estimate of an adaptive session.
+     *
+     * @return The ability estimate, or null if the exam is not adaptive.
+     */
+    public AbilityEstimate getAbilityEstimate() {
+        AdaptiveTest test = adaptiveTest;
+        return test != null ? test.getAbilityEstimate() : null;
+    }
+
+    /**
+     * Gets the index of the current question in the exam session.
+     *
+     * @return Zero-based index of the current question.
+     */
+    public int getCurrentQuestionIndex() {
+        return currentQuestionIndex.get();
+    }
+
+    /**
+     * Gets the number of questions in the exam session.
+     *
+     * @return Number of questions.
+     */
+    public int getQuestionCount() {
+        return questionsForExam.size();
+    }
+
+    /**
+     * Gets the formatted time remaining for this session (MM:SS).
+     *
+     * @return Formatted time remaining string.
+     */
+    public String getTimeRemainingFormatted() {
+        Timer timer = examTimer;
+        return timer == null ? "00:00" : timer.getTimeRemainingFormatted();
+    }
+
+    /**
+     * Pauses the session clock (e.g. during a proctor intervention). Answers are not accepted while paused.
+     */
+    public void pause() {
+        Timer timer = examTimer;
+        if (timer == null) {
+            return;
+        }
+        synchronized (timer) { // Keeps the timer in step with the state when pause and resume race
+            if (state.compareAndSet(SessionState.ACTIVE, SessionState.PAUSED)) {
+                timer.pause();
+                System.out.println("Exam paused for student: " + student.getUsername());
+            }
+        }
+    }
+
+    /**
+     * Resumes a paused session clock.
+     */
+    public void resume() {
+        Timer timer = examTimer;
+        if (timer == null) {
+            return;
+        }
+        synchronized (timer) {
+            if (state.compareAndSet(SessionState.PAUSED, SessionState.ACTIVE)) {
+                timer.resume();
+                System.out.println("Exam resumed for student: " + student.getUsername());
+            }
+        }
+    }
+
+    /**
+     * Grants the student extra time (e.g. an accommodation).
+     *
+     * @param extraTime The time to add.
+     * @throws IllegalArgumentException If extraTime is zero or negative.
+     */
+    public void grantExtraTime(Duration extraTime) {
+        Timer timer = examTimer;
+        if (timer != null && !isSubmitted()) {
+            timer.extend(extraTime);
+            long seconds = (extraTime.toMillis() + 999) / 1000; // A sub-second grant is not shown as 00:00
+            System.out.println("Granted " + String.format("%02d:%02d", seconds / 60, seconds % 60) + " extra time to student: "
+                    + student.getUsername());
+        }
+    }
+
     /**
      * Displays the current question to the student (console output for this example).
      */
     private void displayCurrentQuestion() {
         Question currentQ = getCurrentQuestion();
         if (currentQ != null) {
-            System.out.println("\nQuestion " + (currentQuestionIndex + 1) + "/" + questionsForExam.size() + ": " + currentQ.getQuestionText() + " (Marks: " + currentQ.getMarks() + ")");
+            System.out.println("\nQuestion " + (currentQuestionIndex.get() + 1) + "/" + questionsForExam.size() + ": " + currentQ.getQuestionText() + " (Marks: " + currentQ.getMarks() + ")");
             if (currentQ instanceof ObjectiveQuestion) {
                 ObjectiveQuestion objectiveQ = (ObjectiveQuestion) currentQ;
                 for (int i = 0; i < objectiveQ.getOptions().size(); i++) {
                     System.out.println((char)('A' + i) + ". " + objectiveQ.getOptions().get(i));
                 }
             }
-            System.out.println("Time Remaining: " + examTimer.getTimeRemainingFormatted());
+            System.out.println("Time Remaining: " + getTimeRemainingFormatted());
         } else {
             System.out.println("Exam completed or no questions available.");
         }
     }
 
     /**
-     * Moves to the next question in the exam session.
+     * Moves to the next question in the exam session. Concurrent moves from the same position advance only once.
      */
     public void moveToNextQuestion() {
-        currentQuestionIndex++;
+        List<Question> questions = questionsForExam;
+        int index = currentQuestionIndex.get();
+        if (state.get() != SessionState.ACTIVE || index >= questions.size()) {
+            System.out.println("End of questions in this session.");
+            return;
+        }
+        if (!currentQuestionIndex.compareAndSet(index, index + 1)) {
+            displayCurrentQuestion(); // A concurrent move already advanced
+            return;
+        }
+        AtomicReferenceArray<String> slots = answerSlots;
+        if (adaptiveTest != null && slots != null && index == questions.size() - 1 && questions.size() < slots.length()) {
+            // The answer given when moving on is final: score it and let the engine pick the next item
+            Question current = questions.get(index);
+            String answer = slots.get(index);
+            if (answer == SEALED) {
+                return; // Submitted meanwhile
+            }
+            Question next = adaptiveTest.next(answer != null && current.checkAnswer(answer) > 0);
+            if (next != null) {
+                List<Question> grown = new ArrayList<>(questions.size() + 1);
+                grown.addAll(questions);
+                grown.add(next);
+                questionsForExam = Collections.unmodifiableList(grown);
+                exam.indexDrawnQuestion(this, next);
+            }
+        }
         displayCurrentQuestion();
         if (getCurrentQuestion() == null) {
             System.out.println("End of questions in this session.");
@@ -127,65 +393,316 @@ public class ExamSession {
 
 
     /**
-     * Submits an answer for the current question.
+     * Submits an answer for a question of this session. Safe to call concurrently with a submit or timeout:
+     * the answer is either recorded before the answers are sealed (and scored), or rejected.
      *
      * @param question The question being answered.
      * @param answer   The student's answer.
+     * @return True if the answer was recorded.
      */
-    public void submitAnswer(Question question, String answer) {
-        if (isSubmitted.get()) {
-            System.out.println("Exam already submitted, cannot submit more answers.");
-            return;
+    public boolean submitAnswer(Question question, String answer) {
+        if (state.get() != SessionState.ACTIVE) {
+            System.out.println(isSubmitted() ? "Exam already submitted, cannot submit more answers." : "Exam is not active, answer not accepted.");
+            return false;
         }
-        if (questionsForExam.contains(question)) {
-            studentAnswers.put(question, answer);
-            System.out.println("Answer submitted for question: " + question.getQuestionId());
-        } else {
+        if (question instanceof ObjectiveQuestion) {
+            answer = ((ObjectiveQuestion) question).canonicalize(answer); // Shares the option String across candidates
+        }
+        int slot = questionsForExam.indexOf(question);
+        if (slot < 0) {
             System.out.println("Question is not part of this exam session.");
+            return false;
+        }
+        writersInFlight.incrementAndGet(); // A submit waits for in-flight writers before flushing autosave
+        try {
+            if (state.get() != SessionState.ACTIVE) {
+                System.out.println("Exam already submitted, cannot submit more answers.");
+                return false;
+            }
+            AtomicReferenceArray<String> slots = answerSlots;
+            String current;
+            do {
+                current = slots.get(slot);
+                if (current == SEALED) {
+                    System.out.println("Exam already submitted, cannot submit more answers.");
+                    return false;
+                }
+            } while (!slots.compareAndSet(slot, current, answer));
+            if (answerMatrix != null) {
+                answerMatrix.writeAnswer(answerMatrixRow, slot, question, answer); // Sealing waits for this write
+            }
+            if (answerAutosave != null) {
+                answerAutosave.recordAnswer(getSessionId(), question.getQuestionId(), answer);
+            }
+        } finally {
+            writersInFlight.decrementAndGet();
         }
+        System.out.println("Answer submitted for question: " + question.getQuestionId());
+        return true;
     }
 
 
     /**
-     * Submits the exam session, calculates score, and generates the ExamResult.
+     * Submits the exam session, calculates score, and generates the ExamResult. If another thread (e.g. a grading
+     * worker) is already grading the session, waits for and returns its result.
      *
      * @return The generated ExamResult.
      */
     public ExamResult submit() {
-        if (isSubmitted.compareAndSet(false, true)) { // Ensure submit only once
-            examTimer.stop();
-            this.endTime = LocalDateTime.now();
-            int totalScore = calculateScore();
-            int totalMarks = questionsForExam.stream().mapToInt(Question::getMarks).sum();
-            this.examResult = new ExamResult(this, totalScore, totalMarks);
-            System.out.println("Exam submitted by student: " + student.getUsername() + ", Score: " + totalScore + "/" + totalMarks);
-            return examResult;
-        } else {
+        boolean frozen = freeze();
+        if (claimGrading()) { // Also taken when a timeout froze the session and it is still queued for grading
+            return completeSubmit();
+        }
+        if (!frozen) {
             System.out.println("Exam already submitted.");
-            return examResult; // Return existing result if already submitted
+        }
+        return awaitResult(); // Return existing result if already submitted
+    }
+
+    /**
+     * Freezes the session in O(1): moves it to SUBMITTING and records the end time. From then on new answers are
+     * rejected; grading seals the slots later.
+     *
+     * @return True if this call froze the session, false if it was already frozen.
+     */
+    private boolean freeze() {
+        SessionState current = state.get();
+        while (current != SessionState.SUBMITTING && current != SessionState.SUBMITTED) {
+            if (state.compareAndSet(current, SessionState.SUBMITTING)) { // Ensure submit only once
+                this.frozenAtNanos = System.nanoTime();
+                this.endTime = LocalDateTime.now();
+                return true;
+            }
+            current = state.get();
+        }
+        return false;
+    }
+
+    private boolean claimGrading() {
+        if (state.get() == SessionState.SUBMITTING && gradingClaimed.compareAndSet(false, true)) {
+            gradingGaveUp.set(false);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Grades a frozen session, unless another thread has claimed it (used by the grading pipeline).
+     *
+     * @return True if this call graded the session.
+     */
+    boolean gradeFrozen() {
+        if (!claimGrading()) {
+            return false;
+        }
+        completeSubmit();
+        return true;
+    }
+
+    /**
+     * Checks whether a failed grading can be retried: the session is still frozen and the claim was given up.
+     *
+     * @return True if another call to gradeFrozen() may grade the session.
+     */
+    boolean canRetryGrading() {
+        return state.get() == SessionState.SUBMITTING && !gradingClaimed.get();
+    }
+
+    long getFrozenAtNanos() {
+        return frozenAtNanos;
+    }
+
+    private ExamResult completeSubmit() {
+        boolean claimReleased = false;
+        try {
+            Timer timer = examTimer;
+            timer.stop();
+            List<Question> questions = questionsForExam;
+            AtomicReferenceArray<String> slots = answerSlots;
+            String[] finalAnswers = new String[questions.size()];
+            for (int i = 0; i < slots.length(); i++) {
+                String answer = slots.getAndSet(i, SEALED); // Later answers for this slot are rejected
+                if (i < finalAnswers.length) {
+                    finalAnswers[i] = answer;
+                }
+            }
+            while (writersInFlight.get() > 0) {
+                Thread.onSpinWait(); // Writers that won a slot are still handing their answer to autosave
+            }
+            if (answerAutosave != null) {
+                try {
+                    answerAutosave.flushSession(getSessionId()); // Everything is persisted before submit() returns
+                } catch (UncheckedIOException e) {
+                    // Unseal and give up the claim, so the next submit or a waiting thread grades the same answers
+                    for (int i = 0; i < slots.length(); i++) {
+                        slots.set(i, i < finalAnswers.length ? finalAnswers[i] : null);
+                    }
+                    claimReleased = true;
+                    gradingGaveUp.set(true);
+                    gradingClaimed.set(false);
+                    throw e;
+                }
+            }
+            Map<Question, String> answers = new LinkedHashMap<>();
+            for (int i = 0; i < finalAnswers.length; i++) {
+                if (finalAnswers[i] != null) {
+                    answers.put(questions.get(i), finalAnswers[i]);
+                }
+            }
+            int totalScore = calculateScore(answers);
+            if (answerMatrix != null) {
+                answerMatrix.publishRow(answerMatrixRow, questions, finalAnswers); // The map is dropped after scoring
+            } else {
+                this.submittedAnswers = Collections.unmodifiableMap(answers);
+            }
+            int totalMarks = calculateTotalMarks(questions);
+            ExamResult result = new ExamResult(this, totalScore, totalMarks);
+            this.examResult = result;
+            student.recordAttemptResult(result); // Updates the exam's score distribution per attempt policy
+            System.out.println("Exam submitted by student: " + student.getUsername() + ", Score: " + totalScore + "/" + totalMarks);
+            state.set(SessionState.SUBMITTED);
+            resultFuture.complete(result);
+            if (exam.getSessionArchive() != null) {
+                archive(exam.getSessionArchive(), questions, finalAnswers);
+            }
+            return result;
+        } catch (RuntimeException e) {
+            if (!claimReleased) {
+                resultFuture.completeExceptionally(e); // Threads waiting on this submit fail too instead of hanging
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Waits for the grading result without grading on the waiting thread. If the grading thread gave up its claim
+     * (its autosave flush failed), the session is handed back to the exam's grading pipeline; without a pipeline
+     * the wait fails, since only another submit grades the session then.
+     *
+     * @throws IllegalStateException If grading gave up and the exam has no grading pipeline.
+     */
+    private ExamResult awaitResult() {
+        while (true) {
+            try {
+                return resultFuture.get(100, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (gradingGaveUp.get()) {
+                    GradingPipeline pipeline = exam.getGradingPipeline();
+                    if (pipeline == null) {
+                        throw new IllegalStateException("Grading of session " + getSessionId() + " failed, submit again to retry.");
+                    }
+                    if (gradingGaveUp.compareAndSet(true, false)) { // Only one waiter hands it back
+                        pipeline.submit(this);
+                    }
+                }
+            } catch (ExecutionException e) {
+                throw new CompletionException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+        }
+    }
+
+    /**
+     * Converts the submitted session into a compact ArchivedSession and releases the live question list,
+     * answers, timer and adaptive state.
+     *
+     * @param sessionArchive The archive to store the record in.
+     * @param questions      The questions the student saw.
+     * @param finalAnswers   The sealed answers, aligned with questions.
+     */
+    private void archive(SessionArchive sessionArchive, List<Question> questions, String[] finalAnswers) {
+        String[] questionIds = new String[questions.size()];
+        for (int i = 0; i < questionIds.length; i++) {
+            questionIds[i] = questions.get(i).getQuestionId();
+        }
+        ZoneId zone = ZoneId.systemDefault();
+        synchronized (examResult) { // A concurrent regrade either sees the archive or its score is archived here
+            sessionArchive.put(new ArchivedSession(getSessionId(), student.getUserId(), exam.getExamId(), questionIds, finalAnswers,
+                    examResult.getScore(), examResult.getTotalMarks(),
+                    startTime.atZone(zone).toInstant().toEpochMilli(), endTime.atZone(zone).toInstant().toEpochMilli()));
+            this.archive = sessionArchive; // Published before the live state is released, readers fall back to it
+        }
+        this.submittedAnswers = null;
+        this.questionsForExam = Collections.emptyList();
+        this.answerSlots = null;
+        this.examTimer = null;
+        this.adaptiveTest = null;
+    }
+
+    /**
+     * Recomputes the score of a submitted session against the current answer keys (used by regrades).
+     *
+     * @return The score and total marks.
+     */
+    int[] scoreWithCurrentKeys() {
+        List<Question> questions = questionsForExam; // Read before the archive, which is set before this is released
+        SessionArchive archived = archive;
+        if (archived != null) {
+            ArchivedSession record = archived.get(getSessionId());
+            List<Question> archivedQuestions = new ArrayList<>(record.getQuestionCount());
+            for (int i = 0; i < record.getQuestionCount(); i++) {
+                Question question = snapshot.findQuestion(record.getQuestionId(i));
+                if (question != null) {
+                    archivedQuestions.add(question);
+                }
+            }
+            questions = archivedQuestions;
+        }
+        return new int[] {calculateScore(getStudentAnswers()), calculateTotalMarks(questions)};
+    }
+
+    /**
+     * Writes a regraded score to the archived record, if the session is archived.
+     * Must be called with the result's monitor held.
+     */
+    void updateArchivedScore() {
+        SessionArchive archived = archive;
+        if (archived != null) {
+            archived.replace(archived.get(getSessionId()).withScore(examResult.getScore(), examResult.getTotalMarks()));
         }
     }
 
     /**
      * Calculates the total score for the exam session.
      *
+     * @param answers The sealed answers.
      * @return The total score obtained by the student.
      */
-    private int calculateScore() {
+    private static int calculateScore(Map<Question, String> answers) {
         int score = 0;
-        for (Map.Entry<Question, String> entry : studentAnswers.entrySet()) {
-            score += entry.getKey().checkAnswer(entry.getValue());
+        for (Map.Entry<Question, String> entry : answers.entrySet()) {
+            if (!entry.getKey().isVoided()) {
+                score += entry.getKey().checkAnswer(entry.getValue());
+            }
         }
         return score;
     }
 
+    private static int calculateTotalMarks(List<Question> questions) {
+        int totalMarks = 0;
+        for (Question question : questions) {
+            if (!question.isVoided()) {
+                totalMarks += question.getMarks();
+            }
+        }
+        return totalMarks;
+    }
+
     /**
-     * Callback method when the exam timer expires.
+     * Callback method when the exam timer expires: freezes the session and, if the exam has a grading pipeline,
+     * leaves the grading to it so the timer thread is free for the next timeout.
      */
     private void onExamTimeout() {
-        System.out.println("\nTime's up! Exam timed out for student: " + student.getUsername() + ", Exam: " + exam.getExamName());
-        if (!isSubmitted.get()) {
-            submit(); // Automatically submit on timeout
+        if (!freeze()) {
+            return; // Already submitted
+        }
+        GradingPipeline pipeline = exam.getGradingPipeline();
+        if (pipeline != null) {
+            pipeline.submit(this);
+        } else if (claimGrading()) {
+            completeSubmit(); // Automatically submit on timeout
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,171 @@
+package com.example.onlineexamsystem.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded queue of frozen sessions graded by a fixed set of background threads.
+ *
+ * <p>When the timers of a fixed-end sitting all fire together, each timeout only freezes its session (no more answers,
+ * end time recorded) and hands it here, so the timer threads stay free. Grading drains at the pace of the workers.
+ * If the queue is full, the caller grades the session itself, which slows further hand-offs down instead of growing
+ * the queue. A student who submits while their frozen session is still queued grades it on their own thread; the
+ * worker then skips it.
+ *
+ * <p>A session whose grading gave up its claim (its autosave flush failed) is queued again, up to
+ * {@value #MAX_GRADING_ATTEMPTS} attempts in all. Sessions that still fail, or fail in a way that cannot be retried,
+ * are kept in {@link #getFailedSessions()}; a student's own submit can still grade a session that gave up its claim,
+ * and a thread waiting for such a session's result hands it back here.
+ */
+public class GradingPipeline {
+    static final int MAX_GRADING_ATTEMPTS = 3;
+
+    private final BlockingQueue<ExamSession> queue;
+    private final Thread[] workers;
+    private volatile boolean running = true;
+    private final AtomicInteger peakDepth = new AtomicInteger();
+    private final AtomicLong graded = new AtomicLong();
+    private final AtomicLong gradedByCaller = new AtomicLong();
+    private final AtomicLong totalDrainNanos = new AtomicLong();
+    private final AtomicLong maxDrainNanos = new AtomicLong();
+    private final Map<ExamSession, Integer> failedAttempts = new ConcurrentHashMap<>(); // Sessions being retried
+    private final Queue<ExamSession> failed = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Constructor for GradingPipeline.
+     *
+     * @param capacity      Maximum number of sessions waiting to be graded.
+     * @param workerThreads Number of grading threads.
+     */
+    public GradingPipeline(int capacity, int workerThreads) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.workers = new Thread[workerThreads];
+        for (int i = 0; i < workerThreads; i++) {
+            workers[i] = new Thread(this::drainLoop, "exam-grading-" + (i + 1));
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * Hands over a frozen session for grading, or grades it on the calling thread if the queue is full.
+     *
+     * @param session A session frozen by its timeout.
+     */
+    public void submit(ExamSession session) {
+        if (running && queue.offer(session)) {
+            peakDepth.accumulateAndGet(queue.size(), Math::max);
+            return;
+        }
+        gradedByCaller.incrementAndGet();
+        grade(session);
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getPeakQueueDepth() {
+        return peakDepth.get();
+    }
+
+    /**
+     * Gets the number of sessions graded through the pipeline (by workers or by callers when it was full).
+     *
+     * @return Sessions graded.
+     */
+    public long getGradedCount() {
+        return graded.get();
+    }
+
+    public long getCallerGradedCount() {
+        return gradedByCaller.get();
+    }
+
+    /**
+     * Gets the average time from a session's freeze to the end of its grading.
+     *
+     * @return Average drain time (zero if nothing was graded yet).
+     */
+    public Duration getAverageDrainTime() {
+        long count = graded.get();
+        return count == 0 ? Duration.ZERO : Duration.ofNanos(totalDrainNanos.get() / count);
+    }
+
+    public Duration getMaxDrainTime() {
+        return Duration.ofNanos(maxDrainNanos.get());
+    }
+
+    /**
+     * Gets the sessions whose grading failed and was not retried further, and that are still without a result.
+     *
+     * @return List of failed sessions, oldest failure first.
+     */
+    public List<ExamSession> getFailedSessions() {
+        failed.removeIf(session -> session.getExamResult() != null); // Graded since by the student's own submit
+        return new ArrayList<>(failed);
+    }
+
+    /**
+     * Stops the workers once every queued session has been graded.
+     *
+     * @throws InterruptedException If interrupted while waiting for the workers.
+     */
+    public void shutdown() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        for (ExamSession session = queue.poll(); session != null; session = queue.poll()) {
+            grade(session); // Handed over while the workers were exiting
+        }
+    }
+
+    private void drainLoop() {
+        while (running || !queue.isEmpty()) {
+            try {
+                ExamSession session = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (session != null) {
+                    grade(session);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void grade(ExamSession session) {
+        try {
+            boolean gradedHere = session.gradeFrozen();
+            failedAttempts.remove(session);
+            if (!gradedHere) {
+                return; // Graded by the student's own submit in the meantime
+            }
+            long drainNanos = System.nanoTime() - session.getFrozenAtNanos();
+            graded.incrementAndGet();
+            totalDrainNanos.addAndGet(drainNanos);
+            maxDrainNanos.accumulateAndGet(drainNanos, Math::max);
+        } catch (RuntimeException e) {
+            int attempts = failedAttempts.merge(session, 1, Integer::sum);
+            if (session.canRetryGrading() && attempts < MAX_GRADING_ATTEMPTS && running && queue.offer(session)) {
+                System.out.println("Grading failed for session " + session.getSessionId() + ", retrying: " + e.getMessage());
+                return;
+            }
+            failedAttempts.remove(session);
+            failed.add(session);
+            System.out.println("Grading failed for session " + session.getSessionId() + " after " + attempts
+                    + " attempt(s): " + e.getMessage());
+        }
+    }
+}
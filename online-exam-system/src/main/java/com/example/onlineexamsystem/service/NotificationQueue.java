@@ -0,0 +1,104 @@
+package com.example.onlineexamsystem.service;
+
+import com.example.onlineexamsystem.model.ExamResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded queue of result notifications drained in batches by a single background thread.
+ * Producers block in {@link #enqueue(ExamResult)} while the queue is full, so a large publication
+ * is paced by how fast the sink can deliver rather than piling up in memory. Once the queue is shut down,
+ * enqueue fails instead of waiting for a drainer that no longer runs.
+ */
+public class NotificationQueue {
+    private final BlockingQueue<ExamResult> queue;
+    private final NotificationSink sink;
+    private final int batchSize;
+    private final Thread drainer;
+    private final AtomicLong delivered = new AtomicLong();
+    private volatile boolean running = true;
+
+    /**
+     * Constructor for NotificationQueue.
+     *
+     * @param sink      Where batches are delivered.
+     * @param capacity  Maximum number of pending notifications.
+     * @param batchSize Maximum number of notifications per delivered batch.
+     */
+    public NotificationQueue(NotificationSink sink, int capacity, int batchSize) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.drainer = new Thread(this::drainLoop, "result-notifications");
+        this.drainer.setDaemon(true);
+        this.drainer.start();
+    }
+
+    /**
+     * Queues a notification, waiting for space if the queue is full.
+     *
+     * @param result The published result.
+     * @throws InterruptedException  If interrupted while waiting for space.
+     * @throws IllegalStateException If the queue is shut down.
+     */
+    public void enqueue(ExamResult result) throws InterruptedException {
+        while (running) {
+            if (queue.offer(result, 100, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        }
+        throw new IllegalStateException("Notification queue is shut down.");
+    }
+
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    public long getDeliveredCount() {
+        return delivered.get();
+    }
+
+    /**
+     * Stops accepting work once everything queued so far has been delivered.
+     *
+     * @throws InterruptedException If interrupted while waiting for the drainer.
+     */
+    public void shutdown() throws InterruptedException {
+        running = false;
+        drainer.join();
+        List<ExamResult> late = new ArrayList<>();
+        queue.drainTo(late); // Queued by an enqueue that raced the shutdown
+        if (!late.isEmpty()) {
+            sink.deliver(late);
+            delivered.addAndGet(late.size());
+        }
+    }
+
+    private void drainLoop() {
+        List<ExamResult> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                ExamResult first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                sink.deliver(batch);
+                delivered.addAndGet(batch.size());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                System.out.println("Notification batch failed: " + e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+}
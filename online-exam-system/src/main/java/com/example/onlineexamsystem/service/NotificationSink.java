@@ -0,0 +1,33 @@
+package com.example.onlineexamsystem.service;
+
+import com.example.onlineexamsystem.model.ExamResult;
+
+import java.util.List;
+
+/**
+ * Destination for result notifications, delivered in batches by a NotificationQueue.
+ */
+public interface NotificationSink {
+
+    /**
+     * Delivers one batch of "result published" notifications.
+     *
+     * @param batch The published results to notify students about.
+     */
+    void deliver(List<ExamResult> batch);
+
+    /**
+     * Sink that drops the notification into each student's inbox.
+     *
+     * @return The inbox sink.
+     */
+    static NotificationSink studentInbox() {
+        return batch -> {
+            for (ExamResult result : batch) {
+                result.getExamSession().getStudent().receiveNotification(
+                        "Result published for " + result.getExamSession().getExam().getExamName()
+                        + ": " + result.getScore() + "/" + result.getTotalMarks());
+            }
+        };
+    }
+}
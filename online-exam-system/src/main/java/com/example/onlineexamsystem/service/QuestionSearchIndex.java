@@ -0,0 +1,368 @@
+package com.example.onlineexamsystem.service;
+
+import com.example.onlineexamsystem.model.ObjectiveQuestion;
+import com.example.onlineexamsystem.model.Question;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Full-text inverted index over the text and options of questions, shared by the pools of an ExamManagementSystem.
+ *
+ * <p>Text is lower-cased and split into letter/digit tokens, dropping a few stop words. Each term maps to a
+ * postings list of (document, term frequency) kept in growable int arrays, so adding a question only appends to the
+ * lists of its own terms. Queries are ranked with BM25, evaluating the rarest terms first. When a question is added,
+ * indexed questions whose distinct terms have a Jaccard similarity above a threshold are reported as near-duplicates,
+ * looking only at the postings of its rarest terms. Searches share a read lock; adding takes the write lock.
+ */
+public class QuestionSearchIndex {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it", "of", "on", "or",
+            "the", "this", "to", "was", "what", "which", "who", "with"));
+
+    private final double duplicateThreshold;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postingsByTerm = new HashMap<>();
+    private Question[] documents = new Question[1024];
+    private int[] documentLengths = new int[1024];
+    private int[] documentTermCounts = new int[1024]; // Distinct terms per document
+    private int documentCount = 0;
+    private long totalLength = 0;
+
+    /**
+     * Constructor for QuestionSearchIndex.
+     *
+     * @param duplicateThreshold Token-set Jaccard similarity from which two questions count as near-duplicates (e.g. 0.8).
+     */
+    public QuestionSearchIndex(double duplicateThreshold) {
+        this.duplicateThreshold = duplicateThreshold;
+    }
+
+    /**
+     * Indexes a question.
+     *
+     * @param question The question to add.
+     * @return Near-duplicates of the question that were already indexed (empty if none).
+     */
+    public List<Question> add(Question question) {
+        List<String> tokens = tokenize(question);
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        for (String token : tokens) {
+            termFrequencies.merge(token, 1, Integer::sum);
+        }
+        List<Question> duplicates;
+        lock.writeLock().lock();
+        try {
+            duplicates = findNearDuplicates(question, tokens); // Same lock as the insert, so racing duplicates see each other
+            if (documentCount == documents.length) {
+                documents = Arrays.copyOf(documents, documentCount * 2);
+                documentLengths = Arrays.copyOf(documentLengths, documentCount * 2);
+                documentTermCounts = Arrays.copyOf(documentTermCounts, documentCount * 2);
+            }
+            int document = documentCount++;
+            documents[document] = question;
+            documentLengths[document] = tokens.size();
+            documentTermCounts[document] = termFrequencies.size();
+            totalLength += tokens.size();
+            termFrequencies.forEach((term, frequency) ->
+                    postingsByTerm.computeIfAbsent(term, t -> new Postings()).add(document, frequency));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return duplicates;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Searches question text and options.
+     *
+     * @param query Free-text query; every term contributes to the ranking, no term is required.
+     * @param limit Maximum number of hits.
+     * @return Hits, best match first.
+     */
+    public List<SearchHit> search(String query, int limit) {
+        return rank(tokenize(query), limit);
+    }
+
+    /**
+     * Finds indexed questions that are near-duplicates of a question (the question itself excluded).
+     *
+     * @param question The question to check.
+     * @return The near-duplicates, in no particular order.
+     */
+    public List<Question> findNearDuplicates(Question question) {
+        List<String> tokens = tokenize(question);
+        lock.readLock().lock();
+        try {
+            return findNearDuplicates(question, tokens);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Prefix filtering: a question with Jaccard similarity of at least t shares at least ceil(t * n) of the n
+     * distinct terms, so it must contain one of the n - ceil(t * n) + 1 rarest terms. Candidates come from the
+     * postings of those terms only and are then verified by counting shared terms in the remaining postings.
+     * Postings are sorted by document, so candidates are kept sorted too and matched by merging or binary search.
+     * The caller holds the read or write lock.
+     */
+    private List<Question> findNearDuplicates(Question question, List<String> tokens) {
+        Set<String> tokenSet = new HashSet<>(tokens);
+        if (tokenSet.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int terms = tokenSet.size();
+        int minOverlap = (int) Math.ceil(duplicateThreshold * terms);
+        int maxTerms = (int) Math.floor(terms / duplicateThreshold);
+        List<Postings> lists = postingsOf(tokenSet);
+        // Terms absent from the index are the rarest of all and can match nothing
+        int prefix = lists.size() - minOverlap + 1;
+        if (prefix <= 0) {
+            return Collections.emptyList();
+        }
+        int gathered = 0;
+        for (Postings postings : lists.subList(0, prefix)) {
+            gathered += postings.size;
+        }
+        int[] candidates = new int[gathered];
+        gathered = 0;
+        for (Postings postings : lists.subList(0, prefix)) {
+            for (int i = 0; i < postings.size; i++) {
+                int document = postings.documents[i];
+                int documentTerms = documentTermCounts[document];
+                if (documentTerms >= minOverlap && documentTerms <= maxTerms && documents[document] != question) {
+                    candidates[gathered++] = document;
+                }
+            }
+        }
+        Arrays.sort(candidates, 0, gathered);
+        int[] shared = new int[gathered];
+        int count = 0;
+        for (int i = 0; i < gathered; i++) {
+            if (count > 0 && candidates[count - 1] == candidates[i]) {
+                shared[count - 1]++;
+            } else {
+                candidates[count] = candidates[i];
+                shared[count++] = 1;
+            }
+        }
+        for (Postings postings : lists.subList(prefix, lists.size())) {
+            if (count * 16L < postings.size) {
+                int from = 0;
+                for (int c = 0; c < count && from < postings.size; c++) {
+                    int found = Arrays.binarySearch(postings.documents, from, postings.size, candidates[c]);
+                    if (found >= 0) {
+                        shared[c]++;
+                        from = found + 1;
+                    } else {
+                        from = -found - 1;
+                    }
+                }
+            } else {
+                for (int c = 0, i = 0; c < count && i < postings.size; ) {
+                    int document = postings.documents[i];
+                    if (document < candidates[c]) {
+                        i++;
+                    } else if (document > candidates[c]) {
+                        c++;
+                    } else {
+                        shared[c++]++;
+                        i++;
+                    }
+                }
+            }
+        }
+        List<Question> duplicates = new ArrayList<>();
+        for (int c = 0; c < count; c++) {
+            double jaccard = (double) shared[c] / (terms + documentTermCounts[candidates[c]] - shared[c]);
+            if (jaccard >= duplicateThreshold) {
+                duplicates.add(documents[candidates[c]]);
+            }
+        }
+        return duplicates;
+    }
+
+    /**
+     * BM25 ranking, term at a time from the rarest term. Scores accumulate in a dense array when the query touches
+     * a large share of the documents, otherwise in a sorted sparse list merged with each postings list.
+     */
+    private List<SearchHit> rank(List<String> terms, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Postings> lists = postingsOf(new LinkedHashSet<>(terms));
+            if (lists.isEmpty() || limit <= 0) {
+                return Collections.emptyList();
+            }
+            long touched = 0;
+            for (Postings postings : lists) {
+                touched += postings.size;
+            }
+            double averageLength = (double) totalLength / documentCount;
+            PriorityQueue<SearchHit> top = new PriorityQueue<>((a, b) -> Double.compare(a.getScore(), b.getScore()));
+            if (touched > documentCount / 16) {
+                double[] scores = new double[documentCount];
+                for (Postings postings : lists) {
+                    double idf = idf(postings);
+                    for (int i = 0; i < postings.size; i++) {
+                        scores[postings.documents[i]] += score(idf, postings, i, averageLength);
+                    }
+                }
+                for (int document = 0; document < documentCount; document++) {
+                    if (scores[document] > 0) {
+                        offer(top, limit, documents[document], scores[document]);
+                    }
+                }
+            } else {
+                int[] accumulated = new int[0];
+                double[] scores = new double[0];
+                for (Postings postings : lists) {
+                    double idf = idf(postings);
+                    int[] mergedDocuments = new int[accumulated.length + postings.size];
+                    double[] mergedScores = new double[mergedDocuments.length];
+                    int merged = 0;
+                    int a = 0;
+                    int i = 0;
+                    while (a < accumulated.length || i < postings.size) {
+                        if (i == postings.size || (a < accumulated.length && accumulated[a] < postings.documents[i])) {
+                            mergedDocuments[merged] = accumulated[a];
+                            mergedScores[merged++] = scores[a++];
+                        } else {
+                            double score = score(idf, postings, i, averageLength);
+                            if (a < accumulated.length && accumulated[a] == postings.documents[i]) {
+                                score += scores[a++];
+                            }
+                            mergedDocuments[merged] = postings.documents[i++];
+                            mergedScores[merged++] = score;
+                        }
+                    }
+                    accumulated = Arrays.copyOf(mergedDocuments, merged);
+                    scores = Arrays.copyOf(mergedScores, merged);
+                }
+                for (int a = 0; a < accumulated.length; a++) {
+                    offer(top, limit, documents[accumulated[a]], scores[a]);
+                }
+            }
+            List<SearchHit> hits = new ArrayList<>(top);
+            hits.sort((a, b) -> Double.compare(b.getScore(), a.getScore()));
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the postings of the terms present in the index, rarest first. Called under the read or write lock.
+     */
+    private List<Postings> postingsOf(Set<String> terms) {
+        List<Postings> lists = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            Postings postings = postingsByTerm.get(term);
+            if (postings != null) {
+                lists.add(postings);
+            }
+        }
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+        return lists;
+    }
+
+    private double idf(Postings postings) {
+        return Math.log(1 + (documentCount - postings.size + 0.5) / (postings.size + 0.5));
+    }
+
+    private double score(double idf, Postings postings, int index, double averageLength) {
+        int frequency = postings.frequencies[index];
+        double norm = K1 * (1 - B + B * documentLengths[postings.documents[index]] / averageLength);
+        return idf * frequency * (K1 + 1) / (frequency + norm);
+    }
+
+    private static void offer(PriorityQueue<SearchHit> top, int limit, Question question, double score) {
+        if (top.size() < limit) {
+            top.add(new SearchHit(question, score));
+        } else if (score > top.peek().getScore()) {
+            top.poll();
+            top.add(new SearchHit(question, score));
+        }
+    }
+
+    private static List<String> tokenize(Question question) {
+        StringBuilder text = new StringBuilder(question.getQuestionText());
+        if (question instanceof ObjectiveQuestion) {
+            for (String option : ((ObjectiveQuestion) question).getOptions()) {
+                text.append(' ').append(option);
+            }
+        }
+        return tokenize(text.toString());
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty() && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Postings of one term, in document order.
+     */
+    private static final class Postings {
+        int[] documents = new int[4];
+        int[] frequencies = new int[4];
+        int size = 0;
+
+        void add(int document, int frequency) {
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            documents[size] = document;
+            frequencies[size] = frequency;
+            size++;
+        }
+    }
+
+    /**
+     * A question matching a search, with its BM25 score.
+     */
+    public static final class SearchHit {
+        private final Question question;
+        private final double score;
+
+        SearchHit(Question question, double score) {
+            this.question = question;
+            this.score = score;
+        }
+
+        public Question getQuestion() {
+            return question;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.onlineexamsystem.service;
+
+import com.example.onlineexamsystem.model.Exam;
+import com.example.onlineexamsystem.model.ExamResult;
+import com.example.onlineexamsystem.model.ObjectiveQuestion;
+import com.example.onlineexamsystem.model.Question;
+import com.example.onlineexamsystem.model.ScoreRevision;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Applies answer-key corrections and voided questions to results that were already computed.
+ *
+ * <p>Only the results of sessions that received the question are recomputed: each exam keeps a question-to-session
+ * index of pool questions, and fixed questions go to every session of the versions that contain them. Affected
+ * sessions are rescored in parallel against the corrected key; every changed score is recorded in the result's
+ * audit trail, the exam's score distribution is updated, and archived records are rewritten. Regrades run one at
+ * a time.
+ */
+public class RegradeEngine {
+    private final ExamManagementSystem examManagementSystem;
+
+    /**
+     * Constructor for RegradeEngine.
+     *
+     * @param examManagementSystem The system whose exams are regraded.
+     */
+    public RegradeEngine(ExamManagementSystem examManagementSystem) {
+        this.examManagementSystem = examManagementSystem;
+    }
+
+    /**
+     * Corrects the answer key of a question and regrades every result that included it.
+     *
+     * @param question      The question.
+     * @param correctAnswer The correct answer.
+     * @param reason        Why the key was corrected (recorded in the audit trail).
+     * @return The results whose score changed.
+     */
+    public synchronized List<ExamResult> correctAnswerKey(ObjectiveQuestion question, String correctAnswer, String reason) {
+        question.setCorrectAnswer(correctAnswer); // Sessions of every version read the key from the question
+        return regrade(question, reason, false);
+    }
+
+    /**
+     * Voids a question, so it counts towards neither score nor total marks, and regrades every result that included it.
+     *
+     * @param question The question.
+     * @param reason   Why the question was voided (recorded in the audit trail).
+     * @return The results whose score changed.
+     */
+    public synchronized List<ExamResult> voidQuestion(Question question, String reason) {
+        question.setVoided(true);
+        return regrade(question, reason, true);
+    }
+
+    private List<ExamResult> regrade(Question question, String reason, boolean recompile) {
+        List<ExamResult> revised = new ArrayList<>();
+        for (Exam exam : examManagementSystem.getAllExams()) {
+            if (recompile && exam.isPublished() && exam.getSnapshot().findQuestion(question.getQuestionId()) != null) {
+                exam.recompile(); // New sessions stop drawing the voided question, even if nobody has drawn it yet
+            }
+            List<ExamSession> sessions = exam.getSessionsWithQuestion(question.getQuestionId());
+            if (sessions.isEmpty()) {
+                continue;
+            }
+            revised.addAll(sessions.parallelStream()
+                    .map(session -> regradeSession(session, reason))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList()));
+        }
+        System.out.println("Regraded question " + question.getQuestionId() + ": " + revised.size() + " result(s) changed.");
+        return revised;
+    }
+
+    private ExamResult regradeSession(ExamSession session, String reason) {
+        if (session.getState() == SessionState.SUBMITTING) {
+            try {
+                session.getStudentAnswers(); // Waits for the submit in progress, which may have used the old key
+            } catch (IllegalStateException e) {
+                return null; // Its grading gave up; the next submit scores it with the corrected key
+            }
+        }
+        ExamResult result = session.getExamResult();
+        if (result == null) {
+            return null; // Not submitted yet, it will be scored with the corrected key
+        }
+        ScoreRevision revision = session.getStudent().regradeResult(result, () -> {
+            synchronized (result) {
+                int[] rescored = session.scoreWithCurrentKeys();
+                ScoreRevision changed = result.revise(rescored[0], rescored[1], reason);
+                if (changed != null) {
+                    session.updateArchivedScore();
+                }
+                return changed;
+            }
+        });
+        return revision != null ? result : null;
+    }
+}
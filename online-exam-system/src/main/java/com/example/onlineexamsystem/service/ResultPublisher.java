@@ -0,0 +1,99 @@
+package com.example.onlineexamsystem.service;
+
+import com.example.onlineexamsystem.model.Exam;
+import com.example.onlineexamsystem.model.ExamResult;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Releases the results of an exam in staged waves and notifies students through a NotificationQueue.
+ * Each wave flips up to {@code waveSize} results and queues their notifications; the next wave starts
+ * {@code waveInterval} later, so a release for a large cohort is spread over a bounded, predictable time.
+ */
+public class ResultPublisher {
+    private final NotificationQueue notifications;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "result-publisher");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Constructor for ResultPublisher.
+     *
+     * @param notifications Queue that student notifications are fanned out through.
+     */
+    public ResultPublisher(NotificationQueue notifications) {
+        this.notifications = notifications;
+    }
+
+    /**
+     * Publishes all results of an exam in a single wave.
+     *
+     * @param exam The exam whose results are released.
+     * @return Future completing with the number of newly published results.
+     */
+    public CompletableFuture<Integer> publishAll(Exam exam) {
+        return publishInWaves(exam, Integer.MAX_VALUE, Duration.ZERO);
+    }
+
+    /**
+     * Publishes the results of an exam in waves.
+     *
+     * @param exam         The exam whose results are released.
+     * @param waveSize     Maximum number of results per wave.
+     * @param waveInterval Delay between the start of consecutive waves.
+     * @return Future completing with the number of newly published results.
+     */
+    public CompletableFuture<Integer> publishInWaves(Exam exam, int waveSize, Duration waveInterval) {
+        List<ExamSession> sessions = exam.getExamSessions();
+        CompletableFuture<Integer> done = new CompletableFuture<>();
+        scheduler.execute(() -> runWave(exam, sessions, 0, 0, waveSize, waveInterval, done));
+        return done;
+    }
+
+    /**
+     * Stops scheduling further waves.
+     */
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    private void runWave(Exam exam, List<ExamSession> sessions, int from, int publishedSoFar,
+                         int waveSize, Duration waveInterval, CompletableFuture<Integer> done) {
+        int published = publishedSoFar;
+        int flipped = 0;
+        int index = from;
+        try {
+            for (; index < sessions.size() && flipped < waveSize; index++) {
+                ExamResult result = sessions.get(index).getExamResult();
+                if (result != null && result.markPublished()) {
+                    notifications.enqueue(result); // Blocks while the notification queue is full
+                    flipped++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            done.completeExceptionally(e);
+            return;
+        } catch (IllegalStateException e) {
+            done.completeExceptionally(e); // Notification queue shut down mid-publication
+            return;
+        }
+        published += flipped;
+        if (index >= sessions.size()) {
+            System.out.println("Published " + published + " results for exam: " + exam.getExamName());
+            done.complete(published);
+            return;
+        }
+        final int next = index;
+        final int total = published;
+        scheduler.schedule(() -> runWave(exam, sessions, next, total, waveSize, waveInterval, done),
+                waveInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+}
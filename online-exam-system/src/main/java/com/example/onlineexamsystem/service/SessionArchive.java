@@ -0,0 +1,292 @@
+package com.example.onlineexamsystem.service;
+
+import com.example.onlineexamsystem.model.ArchivedSession;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Holds archived sessions, keeping the most recently used ones in memory and spilling the rest to disk.
+ *
+ * <p>Records are evicted least-recently-used first when more than {@code maxResident} are held, or when the
+ * JVM's free heap drops below {@code minFreeHeapFraction}. Under memory pressure the resident set is spilled down
+ * to half of {@code maxResident} (or half of what is resident, if less); the heap is not checked again until a
+ * garbage collection has run or as many records have been added as were spilled, since the free-heap reading stays
+ * low until the spilled records are collected. Spilled records are reloaded transparently by {@link #get(String)}.
+ *
+ * <p>Only the bookkeeping runs under the archive's lock. Evicted records are written by a background spiller
+ * thread, so adding a record never waits for the disk; they stay readable from memory until their file is in place,
+ * and a record whose write fails stays resident. Files are written and read under a lock per group of session IDs,
+ * so a reload or a rewrite after a regrade only waits for writes of the same group.
+ */
+public class SessionArchive {
+    private static final int FILE_LOCK_STRIPES = 64;
+
+    private final Path spillDirectory;
+    private final int maxResident;
+    private final double minFreeHeapFraction;
+    private final LinkedHashMap<String, ArchivedSession> resident = new LinkedHashMap<>(16, 0.75f, true); // Access order
+    private final Map<String, ArchivedSession> spilling = new HashMap<>(); // Evicted, file not written yet
+    private final Object[] fileLocks = new Object[FILE_LOCK_STRIPES]; // Taken before the archive's lock, never after
+    private final ExecutorService spiller;
+    private long spilledCount = 0;
+    private long gcCountAtPressureSpill = -1; // -1 while the heap is checked on every put
+    private int addedSincePressureSpill;
+    private int spilledUnderPressure;
+
+    /**
+     * Constructor for SessionArchive.
+     *
+     * @param spillDirectory      Directory that evicted records are written to.
+     * @param maxResident         Maximum number of records kept in memory.
+     * @param minFreeHeapFraction Free-heap fraction below which records are spilled early (e.g. 0.2).
+     * @throws IOException If the directory cannot be created.
+     */
+    public SessionArchive(Path spillDirectory, int maxResident, double minFreeHeapFraction) throws IOException {
+        this.spillDirectory = Files.createDirectories(spillDirectory);
+        this.maxResident = maxResident;
+        this.minFreeHeapFraction = minFreeHeapFraction;
+        for (int i = 0; i < fileLocks.length; i++) {
+            fileLocks[i] = new Object();
+        }
+        this.spiller = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "session-archive-spill");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Adds an archived session. Records it evicts are written to disk in the background.
+     *
+     * @param record The record to add.
+     */
+    public void put(ArchivedSession record) {
+        spillLater(insert(record));
+    }
+
+    /**
+     * Replaces an archived session (e.g. after a regrade), rewriting its spilled copy if there is one.
+     *
+     * @param record The updated record.
+     */
+    public void replace(ArchivedSession record) {
+        List<ArchivedSession> evicted;
+        Path file = fileFor(record.getSessionId());
+        synchronized (fileLockFor(record.getSessionId())) {
+            evicted = insert(record); // Newest version first, so a spill of the old one in flight skips its write
+            if (Files.exists(file)) {
+                write(record, file); // Spilled copies are otherwise never rewritten
+            }
+        }
+        spillLater(evicted);
+    }
+
+    /**
+     * Gets an archived session, reloading it from disk if it was spilled.
+     *
+     * @param sessionId The ID of the session.
+     * @return The record, or null if the session was never archived.
+     */
+    public ArchivedSession get(String sessionId) {
+        ArchivedSession record = getInMemory(sessionId);
+        if (record != null) {
+            return record;
+        }
+        List<ArchivedSession> evicted;
+        Path file = fileFor(sessionId);
+        synchronized (fileLockFor(sessionId)) {
+            record = getInMemory(sessionId); // Reloaded or replaced while we waited
+            if (record != null) {
+                return record;
+            }
+            if (!Files.exists(file)) {
+                return null;
+            }
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                record = ArchivedSession.readFrom(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not reload archived session " + sessionId, e);
+            }
+            evicted = insert(record); // The spilled copy stays on disk, so evicting it again is free
+        }
+        spillLater(evicted);
+        return record;
+    }
+
+    /**
+     * Waits until every record evicted so far has been written to disk (or kept resident because its write failed).
+     */
+    public void awaitSpills() {
+        try {
+            spiller.submit(() -> { }).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Archive spiller failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes the records already evicted and stops the background spiller.
+     */
+    public void shutdown() {
+        awaitSpills();
+        spiller.shutdown();
+    }
+
+    public synchronized int getResidentCount() {
+        return resident.size();
+    }
+
+    public synchronized long getSpilledCount() {
+        return spilledCount;
+    }
+
+    private synchronized ArchivedSession getInMemory(String sessionId) {
+        ArchivedSession record = resident.get(sessionId);
+        return record != null ? record : spilling.get(sessionId);
+    }
+
+    /**
+     * Makes a record resident and picks the records to evict, moving them to the spilling set.
+     *
+     * @return The evicted records, to be written by the caller outside the lock.
+     */
+    private synchronized List<ArchivedSession> insert(ArchivedSession record) {
+        resident.put(record.getSessionId(), record);
+        spilling.remove(record.getSessionId());
+        int count;
+        if (resident.size() > maxResident) {
+            count = resident.size() - maxResident;
+        } else if (shouldCheckHeap() && isUnderMemoryPressure()) {
+            count = resident.size() - Math.min(maxResident, resident.size()) / 2;
+            gcCountAtPressureSpill = collectionCount();
+            addedSincePressureSpill = 0;
+            spilledUnderPressure = count;
+        } else {
+            return Collections.emptyList();
+        }
+        List<ArchivedSession> evicted = new ArrayList<>(count);
+        Iterator<Map.Entry<String, ArchivedSession>> eldest = resident.entrySet().iterator();
+        for (int i = 0; i < count && eldest.hasNext(); i++) {
+            ArchivedSession victim = eldest.next().getValue();
+            eldest.remove();
+            spilling.put(victim.getSessionId(), victim);
+            evicted.add(victim);
+        }
+        return evicted;
+    }
+
+    /**
+     * Decides whether the free heap is worth reading: always, unless a pressure spill happened and neither a garbage
+     * collection nor enough new records have followed it.
+     */
+    private boolean shouldCheckHeap() {
+        if (gcCountAtPressureSpill < 0) {
+            return true;
+        }
+        if (++addedSincePressureSpill < spilledUnderPressure && collectionCount() == gcCountAtPressureSpill) {
+            return false;
+        }
+        gcCountAtPressureSpill = -1;
+        return true;
+    }
+
+    private void spillLater(List<ArchivedSession> evicted) {
+        if (!evicted.isEmpty()) {
+            spiller.execute(() -> spill(evicted));
+        }
+    }
+
+    private void spill(List<ArchivedSession> evicted) {
+        for (ArchivedSession record : evicted) {
+            Path file = fileFor(record.getSessionId());
+            synchronized (fileLockFor(record.getSessionId())) {
+                boolean written = false;
+                if (isLatest(record) && !Files.exists(file)) {
+                    try {
+                        write(record, file);
+                    } catch (UncheckedIOException e) {
+                        keepResident(record); // Tried again the next time it is evicted
+                        System.out.println(e.getMessage() + ": " + e.getCause().getMessage());
+                        continue;
+                    }
+                    written = true;
+                }
+                finishSpill(record, written);
+            }
+        }
+    }
+
+    private synchronized void keepResident(ArchivedSession record) {
+        if (spilling.remove(record.getSessionId(), record)) {
+            resident.putIfAbsent(record.getSessionId(), record);
+        }
+    }
+
+    private synchronized boolean isLatest(ArchivedSession record) {
+        return spilling.get(record.getSessionId()) == record; // Otherwise replaced or reloaded meanwhile
+    }
+
+    private synchronized void finishSpill(ArchivedSession record, boolean written) {
+        spilling.remove(record.getSessionId(), record);
+        if (written) {
+            spilledCount++;
+        }
+    }
+
+    private void write(ArchivedSession record, Path file) {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                record.writeTo(out);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not spill archived session " + record.getSessionId(), e);
+        }
+    }
+
+    private boolean isUnderMemoryPressure() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = runtime.totalMemory() - runtime.freeMemory();
+        long max = runtime.maxMemory();
+        return max != Long.MAX_VALUE && (max - used) < (long) (max * minFreeHeapFraction);
+    }
+
+    private static long collectionCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collector.getCollectionCount());
+        }
+        return count;
+    }
+
+    private Object fileLockFor(String sessionId) {
+        return fileLocks[(sessionId.hashCode() & 0x7fffffff) % fileLocks.length];
+    }
+
+    private Path fileFor(String sessionId) {
+        return spillDirectory.resolve(sessionId.replaceAll("[^A-Za-z0-9_-]", "_") + ".session");
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.onlineexamsystem.service;
+
+/**
+ * Lifecycle of an ExamSession. Transitions are made with compare-and-set, so exactly one thread wins each step.
+ */
+public enum SessionState {
+    /** Created but the timer has not been started yet. */
+    NOT_STARTED,
+    /** The student is answering questions. */
+    ACTIVE,
+    /** The clock is stopped (e.g. during a proctor intervention); answers are not accepted. */
+    PAUSED,
+    /** A submit (by the student or the timeout) has won; answers are sealed and the result is being computed. */
+    SUBMITTING,
+    /** The result is available. */
+    SUBMITTED
+}
@@ -2,10 +2,16 @@ package com.example.onlineexamsystem.user;
 
 import com.example.onlineexamsystem.model.Exam;
 import com.example.onlineexamsystem.model.ExamResult;
+import com.example.onlineexamsystem.model.ObjectiveQuestion;
+import com.example.onlineexamsystem.model.Question;
 import com.example.onlineexamsystem.model.QuestionPool;
+import com.example.onlineexamsystem.persistence.ResultExporter;
 import com.example.onlineexamsystem.service.ExamManagementSystem;
 import com.example.onlineexamsystem.service.ExamSession;
+import com.example.onlineexamsystem.service.QuestionSearchIndex;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
@@ -17,6 +23,7 @@ import java.util.stream.Collectors;
  */
 public class AdminUser extends User {
     private final List<QuestionPool> questionPools = new ArrayList<>();
+    private final ExamManagementSystem examManagementSystem;
 
     /**
      * Constructor for AdminUser.
@@ -25,7 +32,19 @@ public class AdminUser extends User {
      * @param password Admin password.
      */
     public AdminUser(String username, String password) {
+        this(username, password, null);
+    }
+
+    /**
+     * Constructor for AdminUser bound to the ExamManagementSystem it belongs to.
+     *
+     * @param username Admin username.
+     * @param password Admin password.
+     * @param system   The ExamManagementSystem that created exams are registered with.
+     */
+    public AdminUser(String username, String password, ExamManagementSystem system) {
         super(username, password);
+        this.examManagementSystem = system;
     }
 
     @Override
@@ -43,11 +62,21 @@ public class AdminUser extends User {
      */
     public QuestionPool createQuestionPool(String poolName) {
         QuestionPool questionPool = new QuestionPool(poolName, this);
+        questionPool.setSearchIndex(getExamManagementSystem().getQuestionSearchIndex());
         questionPools.add(questionPool);
         System.out.println("Question Pool created: " + poolName);
         return questionPool;
     }
 
+    /**
+     * Gets the question pools created by this admin.
+     *
+     * @return List of question pools.
+     */
+    public List<QuestionPool> getQuestionPools() {
+        return new ArrayList<>(questionPools);
+    }
+
     /**
      * Creates a new Exam.
      *
@@ -73,6 +102,56 @@ public class AdminUser extends User {
         System.out.println("Exam published: " + exam.getExamName());
     }
 
+    /**
+     * Publishes all submitted results of an exam in one pass.
+     *
+     * @param exam The exam whose results are released.
+     * @return The newly published results.
+     */
+    public List<ExamResult> publishExamResults(Exam exam) {
+        return exam.publishResults();
+    }
+
+    /**
+     * Corrects the answer key of a question and regrades the results of every session that received it on the
+     * admin's system. In a cluster, use {@link com.example.onlineexamsystem.cluster.ExamClusterRouter} to reach
+     * exams on every node.
+     *
+     * @param question      The question to correct.
+     * @param correctAnswer The correct answer.
+     * @param reason        Why the key was corrected.
+     * @return The results whose score changed.
+     * @throws IllegalStateException If the admin does not belong to an ExamManagementSystem.
+     */
+    public List<ExamResult> correctAnswerKey(ObjectiveQuestion question, String correctAnswer, String reason) {
+        return requireExamManagementSystem().getRegradeEngine().correctAnswerKey(question, correctAnswer, reason);
+    }
+
+    /**
+     * Voids a question and regrades the results of every session that received it on the admin's system (see
+     * {@link #correctAnswerKey} for clusters).
+     *
+     * @param question The question to void.
+     * @param reason   Why the question was voided.
+     * @return The results whose score changed.
+     * @throws IllegalStateException If the admin does not belong to an ExamManagementSystem.
+     */
+    public List<ExamResult> voidQuestion(Question question, String reason) {
+        return requireExamManagementSystem().getRegradeEngine().voidQuestion(question, reason);
+    }
+
+    /**
+     * Searches the text and options of the questions in every pool of the system.
+     *
+     * @param query Free-text query.
+     * @param limit Maximum number of hits.
+     * @return Hits, best match first.
+     * @throws IllegalStateException If the admin does not belong to an ExamManagementSystem.
+     */
+    public List<QuestionSearchIndex.SearchHit> searchQuestions(String query, int limit) {
+        return requireExamManagementSystem().getQuestionSearchIndex().search(query, limit);
+    }
+
     /**
      * Views results for a specific exam.
      *
@@ -87,6 +166,31 @@ public class AdminUser extends User {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Exports the results of an exam, with every response, to CSV files without holding them in memory.
+     *
+     * @param exam          The exam to export.
+     * @param resultsFile   File for one row per result.
+     * @param responsesFile File for one row per answered question.
+     * @return The number of results exported.
+     * @throws IOException If writing fails.
+     */
+    public long exportExamResultsCsv(Exam exam, Path resultsFile, Path responsesFile) throws IOException {
+        return new ResultExporter().exportCsv(exam, resultsFile, responsesFile);
+    }
+
+    /**
+     * Exports the results of an exam, with every response, to a compact columnar binary file.
+     *
+     * @param exam The exam to export.
+     * @param file The file to write.
+     * @return The number of results exported.
+     * @throws IOException If writing fails.
+     */
+    public long exportExamResultsBinary(Exam exam, Path file) throws IOException {
+        return new ResultExporter().exportBinary(exam, file);
+    }
+
     /**
      * Generates a summary report for an exam.
      *
@@ -120,8 +224,16 @@ public class AdminUser extends User {
         System.out.println("------------------------------------");
     }
 
-    // Placeholder to access ExamManagementSystem (in a real app, dependency injection or similar would be used)
+    // Falls back to a detached system for admins created outside an ExamManagementSystem
     private ExamManagementSystem getExamManagementSystem() {
-        return new ExamManagementSystem(); // In a real application, this would be properly injected.
+        return examManagementSystem != null ? examManagementSystem : new ExamManagementSystem();
+    }
+
+    // Regrades and searches act on the system's existing exams, so a detached system would silently do nothing
+    private ExamManagementSystem requireExamManagementSystem() {
+        if (examManagementSystem == null) {
+            throw new IllegalStateException("Admin " + getUsername() + " does not belong to an ExamManagementSystem.");
+        }
+        return examManagementSystem;
     }
 }
\ No newline at end of file
@@ -0,0 +1,104 @@
+package com.example.onlineexamsystem.user;
+
+import com.example.onlineexamsystem.model.AttemptPolicy;
+import com.example.onlineexamsystem.model.ExamResult;
+import com.example.onlineexamsystem.service.ExamSession;
+import com.example.onlineexamsystem.service.SessionState;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A student's attempts at one exam. Guarded by the owning StudentUser's per-exam index entry.
+ */
+class ExamAttempts {
+    private final List<ExamSession> sessions = new ArrayList<>(2);
+    private int claimed = 0;          // Attempts claimed, including one whose session is still being created
+    private boolean pendingClaim = false;
+    private ExamResult countedResult; // Result selected by the exam's attempt policy
+
+    /**
+     * Claims the next attempt if the limit allows it and no attempt is in progress. An attempt is in progress until
+     * it is graded, so a new one cannot start (and be graded first) while the previous one is still submitting.
+     */
+    synchronized boolean tryClaim(int maxAttempts) {
+        if (pendingClaim || claimed >= maxAttempts || hasActiveSession()) {
+            return false;
+        }
+        pendingClaim = true;
+        claimed++;
+        return true;
+    }
+
+    synchronized void completeClaim(ExamSession session) {
+        sessions.add(session);
+        pendingClaim = false;
+    }
+
+    synchronized void releaseClaim() {
+        pendingClaim = false;
+        claimed--;
+    }
+
+    synchronized int getClaimedCount() {
+        return claimed;
+    }
+
+    synchronized List<ExamSession> getSessions() {
+        return new ArrayList<>(sessions);
+    }
+
+    synchronized ExamResult getCountedResult() {
+        return countedResult;
+    }
+
+    /**
+     * Applies the attempt policy to a newly submitted result.
+     *
+     * @return The previously counted result if the new one replaces it, the new result itself if nothing was
+     *         counted before, or null if the new result does not count.
+     */
+    synchronized ExamResult offerResult(ExamResult result, AttemptPolicy policy) {
+        ExamResult previous = countedResult;
+        if (previous == result) {
+            return null; // Already counted by a regrade that ran while this attempt was being submitted
+        }
+        if (previous == null) {
+            countedResult = result;
+            return result;
+        }
+        boolean replaces = policy == AttemptPolicy.LAST_SCORE
+                ? attemptIndex(result) >= attemptIndex(previous) // Attempt order, not the order grading finished
+                : result.getScore() > previous.getScore();
+        if (replaces) {
+            countedResult = result;
+            return previous;
+        }
+        return null;
+    }
+
+    /**
+     * Selects the counted result again from all submitted attempts (after a regrade changed a score).
+     *
+     * @return The counted result, or null if no attempt was submitted.
+     */
+    synchronized ExamResult recount(AttemptPolicy policy) {
+        ExamResult selected = null;
+        for (ExamSession session : sessions) {
+            ExamResult result = session.getExamResult();
+            if (result != null && (selected == null || policy == AttemptPolicy.LAST_SCORE || result.getScore() > selected.getScore())) {
+                selected = result;
+            }
+        }
+        countedResult = selected;
+        return selected;
+    }
+
+    private int attemptIndex(ExamResult result) {
+        return sessions.indexOf(result.getExamSession());
+    }
+
+    private boolean hasActiveSession() {
+        return !sessions.isEmpty() && sessions.get(sessions.size() - 1).getState() != SessionState.SUBMITTED;
+    }
+}
@@ -2,17 +2,26 @@ package com.example.onlineexamsystem.user;
 
 import com.example.onlineexamsystem.model.Exam;
 import com.example.onlineexamsystem.model.ExamResult;
+import com.example.onlineexamsystem.model.ScoreRevision;
 import com.example.onlineexamsystem.service.ExamManagementSystem;
+import com.example.onlineexamsystem.service.ExamScheduler;
 import com.example.onlineexamsystem.service.ExamSession;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Represents a Student user, who can take exams.
  */
 public class StudentUser extends User {
-    private final List<ExamSession> examSessions = new ArrayList<>();
+    private final Map<String, ExamAttempts> attemptsByExam = new ConcurrentHashMap<>(); // Exam ID -> attempts
+    private final Queue<String> notifications = new ConcurrentLinkedQueue<>();
 
     /**
      * Constructor for StudentUser.
@@ -35,20 +44,47 @@ public class StudentUser extends User {
      * Starts an exam session for the student.
      *
      * @param exam The exam to take.
-     * @return The created ExamSession if exam is published and student hasn't already taken it, null otherwise.
+     * @return The created ExamSession if exam is published and the student may start another attempt, null otherwise.
      */
     public ExamSession startExam(Exam exam) {
+        ExamScheduler scheduler = exam.getScheduler();
+        return startExam(exam, scheduler != null ? scheduler.admit(this, Instant.now()) : ExamScheduler.Admission.ADMITTED);
+    }
+
+    /**
+     * Starts an exam whose scheduler the caller has already consulted, e.g. to tell the student why they were
+     * refused without checking twice.
+     *
+     * @param exam      The exam to start.
+     * @param admission The outcome of the exam scheduler's admit() for this student (ADMITTED if it has none).
+     * @return The started ExamSession, or null if the exam cannot be started.
+     */
+    public ExamSession startExam(Exam exam, ExamScheduler.Admission admission) {
         if (!exam.isPublished()) {
             System.out.println("Exam " + exam.getExamName() + " is not published yet.");
             return null;
         }
-        if (hasAlreadyTakenExam(exam)) {
+        if (admission != ExamScheduler.Admission.ADMITTED) {
+            System.out.println("Exam " + exam.getExamName() + " cannot be started now: " + admission
+                    + (admission == ExamScheduler.Admission.TOO_EARLY
+                            ? ", your slot opens at " + exam.getScheduler().getAssignedStart(this) : ""));
+            return null;
+        }
+        // Claiming the attempt is atomic, so a double-click cannot start two sessions
+        ExamAttempts attempts = attemptsByExam.computeIfAbsent(exam.getExamId(), id -> new ExamAttempts());
+        if (!attempts.tryClaim(exam.getMaxAttempts())) {
             System.out.println("You have already taken exam: " + exam.getExamName());
             return null;
         }
 
-        ExamSession session = new ExamSession(this, exam);
-        examSessions.add(session);
+        ExamSession session;
+        try {
+            session = new ExamSession(this, exam);
+        } catch (RuntimeException e) {
+            attempts.releaseClaim();
+            throw e;
+        }
+        attempts.completeClaim(session);
         exam.addExamSession(session); // Add session to exam's list
         session.start(); // Start the timer and question flow
         return session;
@@ -61,11 +97,7 @@ public class StudentUser extends User {
      * @return The ExamResult for the submitted session.
      */
     public ExamResult submitExam(ExamSession session) {
-        if (session.isSubmitted()) {
-            System.out.println("Exam already submitted.");
-            return session.getExamResult();
-        }
-        return session.submit();
+        return session.submit(); // Returns the existing result (waiting for a submit in progress) if already submitted
     }
 
     /**
@@ -75,21 +107,108 @@ public class StudentUser extends User {
      * @return The ExamResult if the student has taken the exam and it's available, null otherwise.
      */
     public ExamResult viewExamResult(Exam exam) {
-        return examSessions.stream()
-                .filter(session -> session.getExam().equals(exam))
-                .map(ExamSession::getExamResult)
-                .findFirst()
-                .orElse(null);
+        ExamAttempts attempts = attemptsByExam.get(exam.getExamId());
+        return attempts == null ? null : attempts.getCountedResult();
+    }
+
+    /**
+     * Gets all of the student's sessions for an exam, oldest attempt first.
+     *
+     * @param exam The exam.
+     * @return List of sessions (empty if the student never started the exam).
+     */
+    public List<ExamSession> getExamSessions(Exam exam) {
+        ExamAttempts attempts = attemptsByExam.get(exam.getExamId());
+        return attempts == null ? new ArrayList<>() : attempts.getSessions();
+    }
+
+    /**
+     * Gets the number of attempts the student has used for an exam.
+     *
+     * @param exam The exam.
+     * @return Number of attempts started.
+     */
+    public int getAttemptCount(Exam exam) {
+        ExamAttempts attempts = attemptsByExam.get(exam.getExamId());
+        return attempts == null ? 0 : attempts.getClaimedCount();
+    }
+
+    /**
+     * Records the result of a submitted attempt. If the exam's attempt policy makes it the counted result,
+     * it replaces the previous one in the exam's score distribution.
+     *
+     * @param result The result of the submitted session.
+     */
+    public void recordAttemptResult(ExamResult result) {
+        Exam exam = result.getExamSession().getExam();
+        ExamAttempts attempts = attemptsByExam.computeIfAbsent(exam.getExamId(), id -> new ExamAttempts());
+        synchronized (attempts) {
+            ExamResult replaced = attempts.offerResult(result, exam.getAttemptPolicy());
+            if (replaced == null) {
+                return;
+            }
+            if (replaced != result) {
+                exam.getScoreDistribution().remove(replaced);
+            }
+            exam.getScoreDistribution().record(result);
+        }
+    }
+
+    /**
+     * Regrades one of the student's results and updates the exam's score distribution. The regrade runs under the
+     * lock of the student's attempts at the exam, so regrades of two attempts and a new submission see each other's
+     * changes. The counted attempt is selected again, since under BEST_SCORE a regrade can change which attempt is best.
+     *
+     * @param result  The result to regrade.
+     * @param regrade Revises the result, returning the revision or null if its score did not change.
+     * @return The revision, or null if the score did not change.
+     */
+    public ScoreRevision regradeResult(ExamResult result, Supplier<ScoreRevision> regrade) {
+        Exam exam = result.getExamSession().getExam();
+        ExamAttempts attempts = attemptsByExam.computeIfAbsent(exam.getExamId(), id -> new ExamAttempts());
+        synchronized (attempts) {
+            ScoreRevision revision = regrade.get();
+            if (revision == null) {
+                return null;
+            }
+            ExamResult previous = attempts.getCountedResult();
+            ExamResult counted = attempts.recount(exam.getAttemptPolicy());
+            if (previous != null && previous != counted) {
+                exam.getScoreDistribution().remove(previous);
+            }
+            if (counted != null) {
+                exam.getScoreDistribution().record(counted); // Moves it to its new score if it was counted before
+            }
+            return revision;
+        }
+    }
+
+    /**
+     * Gets the student's rank in an exam (1 is best; ties share a rank).
+     *
+     * @param exam The exam to rank in.
+     * @return The rank, or -1 if the student has no result for the exam.
+     */
+    public long viewExamRank(Exam exam) {
+        ExamResult result = viewExamResult(exam);
+        return result == null ? -1 : exam.getScoreDistribution().rankOf(result.getScore());
+    }
+
+    /**
+     * Delivers a notification to the student's inbox.
+     *
+     * @param message The notification message.
+     */
+    public void receiveNotification(String message) {
+        notifications.add(message);
     }
 
     /**
-     * Checks if the student has already taken a specific exam.
+     * Gets the notifications received so far.
      *
-     * @param exam The exam to check.
-     * @return True if the student has taken the exam, false otherwise.
+     * @return List of notification messages, oldest first.
      */
-    private boolean hasAlreadyTakenExam(Exam exam) {
-        return examSessions.stream()
-                .anyMatch(session -> session.getExam().equals(exam));
+    public List<String> getNotifications() {
+        return new ArrayList<>(notifications);
     }
-}
\ No newline at end of file
+}
@@ -1,8 +1,8 @@
 package com.example.onlineexamsystem.user;
 
+import com.example.onlineexamsystem.id.Ids;
 import com.example.onlineexamsystem.service.ExamManagementSystem; // Import if needed in abstract class (in this case, it's not directly used, but good practice if subclasses might use it)
 
-import java.util.UUID;
 
 // ... (rest of User.java code - no changes needed in code logic)
 
@@ -10,7 +10,8 @@ import java.util.UUID;
  * Abstract class representing a User in the system (Admin or Student).
  */
 public abstract class User {
-    private final String userId;
+    private final long id;
+    private String userId; // String form, formatted on first use
     private final String username;
     private final String password;
 
@@ -21,13 +22,18 @@ public abstract class User {
      * @param password User's password.
      */
     public User(String username, String password) {
-        this.userId = UUID.randomUUID().toString();
+        this.id = Ids.next();
         this.username = username;
         this.password = password;
     }
 
     public String getUserId() {
-        return userId;
+        String formatted = userId;
+        if (formatted == null) {
+            formatted = Ids.format(id);
+            userId = formatted; // Racing readers format the same value
+        }
+        return formatted;
     }
 
     public String getUsername() {
@@ -0,0 +1,142 @@
+package com.example.onlineexamsystem.model;
+
+import com.example.onlineexamsystem.service.ExamManagementSystem;
+import com.example.onlineexamsystem.user.AdminUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that every paper drawn by a BlueprintSampler follows its blueprint: exact total marks, the count of each
+ * rule, no voided questions, and that blueprints the pool cannot satisfy are refused.
+ */
+class BlueprintSamplerTest {
+    private static final int PAPERS = 500;
+
+    private PrintStream console;
+
+    @BeforeEach
+    void setUp() {
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // Exams and regrades log every step
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(console);
+    }
+
+    @Test
+    void papersHaveExactTotalMarksAndRuleCounts() {
+        List<Question> candidates = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            candidates.add(tagged(new ObjectiveQuestion("ALG" + i, "?", 1 + i % 3, List.of("A", "B"), "A"), "algebra", 1 + i % 4));
+        }
+        for (int i = 0; i < 6; i++) {
+            candidates.add(tagged(new EssayQuestion("ES" + i, "Explain", 4 + i % 3), "algebra", 2));
+        }
+        ExamBlueprint blueprint = new ExamBlueprint(25);
+        blueprint.addRule(4, ExamBlueprint.QuestionKind.OBJECTIVE, "algebra", 2, 3);
+        blueprint.addRule(2, ExamBlueprint.QuestionKind.ESSAY, null);
+        BlueprintSampler sampler = new BlueprintSampler(blueprint, candidates.toArray(new Question[0]), 5);
+        assertTrue(sampler.isSatisfiable(), sampler::getUnsatisfiedReason);
+
+        Random random = new Random(42);
+        for (int p = 0; p < PAPERS; p++) {
+            List<Question> paper = new ArrayList<>();
+            sampler.sample(random, paper);
+            int marks = 0;
+            int objective = 0;
+            int essays = 0;
+            for (Question question : paper) {
+                marks += question.getMarks();
+                if (question instanceof EssayQuestion) {
+                    essays++;
+                } else {
+                    objective++;
+                    assertTrue(question.getDifficulty() >= 2 && question.getDifficulty() <= 3, question::getQuestionId);
+                }
+            }
+            assertEquals(20, marks, "Pool questions must make up the total minus the fixed marks");
+            assertEquals(4, objective);
+            assertEquals(2, essays);
+            assertEquals(paper.size(), paper.stream().distinct().count(), "A paper must not repeat a question");
+        }
+    }
+
+    @Test
+    void unsatisfiableBlueprintIsRefused() {
+        Question[] candidates = {
+                tagged(new ObjectiveQuestion("Q1", "?", 2, List.of("A", "B"), "A"), "algebra", 1),
+                tagged(new ObjectiveQuestion("Q2", "?", 2, List.of("A", "B"), "A"), "algebra", 1),
+                tagged(new ObjectiveQuestion("Q3", "?", 2, List.of("A", "B"), "A"), "algebra", 1)
+        };
+        ExamBlueprint oddTotal = new ExamBlueprint(5);
+        oddTotal.addRule(2, ExamBlueprint.QuestionKind.OBJECTIVE, "algebra");
+        assertFalse(new BlueprintSampler(oddTotal, candidates, 0).isSatisfiable());
+
+        ExamBlueprint tooMany = new ExamBlueprint(0);
+        tooMany.addRule(4, ExamBlueprint.QuestionKind.ANY, "algebra");
+        assertNotNull(new BlueprintSampler(tooMany, candidates, 0).getUnsatisfiedReason());
+
+        ExamManagementSystem system = new ExamManagementSystem();
+        AdminUser admin = system.createAdmin("admin", "adminPass");
+        QuestionPool pool = admin.createQuestionPool("pool");
+        for (Question question : candidates) {
+            pool.addQuestion(question, question.getTopic(), question.getDifficulty());
+        }
+        Exam exam = admin.createExam("Odd", Duration.ofMinutes(30), pool);
+        exam.setBlueprint(oddTotal);
+        admin.publishExam(exam);
+        assertFalse(exam.isPublished());
+    }
+
+    @Test
+    void voidedQuestionIsNotDrawnAfterRecompile() {
+        ExamManagementSystem system = new ExamManagementSystem();
+        AdminUser admin = system.createAdmin("admin", "adminPass");
+        QuestionPool pool = admin.createQuestionPool("pool");
+        List<Question> questions = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Question question = new ObjectiveQuestion("Q" + i, "?", 1, List.of("A", "B"), "A");
+            pool.addQuestion(question, "algebra", 1);
+            questions.add(question);
+        }
+        Exam exam = admin.createExam("Blueprint", Duration.ofMinutes(30), pool);
+        ExamBlueprint blueprint = new ExamBlueprint(3);
+        blueprint.addRule(3, ExamBlueprint.QuestionKind.OBJECTIVE, "algebra");
+        exam.setBlueprint(blueprint);
+        admin.publishExam(exam);
+        assertTrue(exam.isPublished());
+
+        Question voided = questions.get(0);
+        admin.voidQuestion(voided, "Ambiguous wording"); // Nobody has drawn it yet, the exam is recompiled anyway
+        assertTrue(exam.getSnapshot().getVersion() > 1, "Voiding a drawable question must recompile the exam");
+        Random random = new Random(7);
+        for (int p = 0; p < PAPERS; p++) {
+            List<Question> paper = exam.getSnapshot().sampleQuestions(random);
+            assertEquals(3, paper.size());
+            assertFalse(paper.contains(voided), "Voided question drawn");
+        }
+        assertNull(exam.getSnapshot().getBlueprintProblem());
+    }
+
+    private static Question tagged(Question question, String topic, int difficulty) {
+        question.setTopic(topic);
+        question.setDifficulty(difficulty);
+        return question;
+    }
+}
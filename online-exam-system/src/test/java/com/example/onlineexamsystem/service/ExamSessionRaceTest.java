@@ -0,0 +1,171 @@
+package com.example.onlineexamsystem.service;
+
+import com.example.onlineexamsystem.model.Exam;
+import com.example.onlineexamsystem.model.ExamResult;
+import com.example.onlineexamsystem.model.ObjectiveQuestion;
+import com.example.onlineexamsystem.model.Question;
+import com.example.onlineexamsystem.user.AdminUser;
+import com.example.onlineexamsystem.user.StudentUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Stress test for the ExamSession state machine: answers racing a student's submit and the exam timeout.
+ *
+ * <p>Every session gets four writer threads, each owning five questions, while the student submits after a random
+ * delay or lets the 30 ms timer submit. Whatever the interleaving, an answer is either accepted and scored or
+ * rejected, every submit sees the same result, and the score matches the sealed answers.
+ */
+class ExamSessionRaceTest {
+    private static final int QUESTIONS = 20;
+    private static final int WRITERS_PER_SESSION = 4;
+    private static final int ANSWERS_PER_WRITER = 200;
+
+    private PrintStream console;
+    private ExamManagementSystem system;
+    private Exam exam;
+
+    @BeforeEach
+    void setUp() {
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // Sessions log every answer
+        system = new ExamManagementSystem();
+        AdminUser admin = system.createAdmin("admin", "adminPass");
+        exam = admin.createExam("Race", Duration.ofMillis(30), admin.createQuestionPool("pool"));
+        for (int q = 0; q < QUESTIONS; q++) {
+            exam.addQuestion(new ObjectiveQuestion("Q" + q, "Question " + q, 1, List.of("A", "B", "C"), "A"));
+        }
+        admin.publishExam(exam);
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(console);
+    }
+
+    @Test
+    void answersRacingSubmitAndTimeoutAreScoredOrRejected() throws Exception {
+        int sessions = 1000;
+        Queue<String> failures = new ConcurrentLinkedQueue<>();
+        ExecutorService students = Executors.newFixedThreadPool(16);
+        CountDownLatch done = new CountDownLatch(sessions);
+        for (int i = 0; i < sessions; i++) {
+            String username = "student" + i;
+            students.execute(() -> {
+                try {
+                    runSession(username, failures);
+                } catch (Throwable t) {
+                    failures.add(username + ": " + t);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        assertTrue(done.await(5, TimeUnit.MINUTES), "Sessions did not finish");
+        students.shutdown();
+        assertTrue(failures.isEmpty(), () -> failures.size() + " failures, first: " + failures.peek());
+        assertEquals(sessions, exam.getScoreDistribution().getTotalCount());
+    }
+
+    @Test
+    void concurrentSubmitsShareOneResult() throws Exception {
+        StudentUser student = system.createStudent("student", "studentPass");
+        ExamSession session = student.startExam(exam);
+        boolean answered = session.submitAnswer(session.getCurrentQuestion(), "A"); // The 30 ms timer may win
+        ExecutorService submitters = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ExamResult>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(submitters.submit(() -> {
+                start.await();
+                return session.submit();
+            }));
+        }
+        start.countDown();
+        ExamResult first = results.get(0).get(10, TimeUnit.SECONDS);
+        for (Future<ExamResult> result : results) {
+            assertSame(first, result.get(10, TimeUnit.SECONDS));
+        }
+        submitters.shutdown();
+        assertEquals(SessionState.SUBMITTED, session.getState());
+        assertEquals(answered ? 1 : 0, first.getScore());
+        assertEquals(1, exam.getScoreDistribution().getTotalCount());
+    }
+
+    private void runSession(String username, Queue<String> failures) throws Exception {
+        StudentUser student = system.createStudent(username, "pass");
+        ExamSession session = student.startExam(exam);
+        List<Question> questions = new ArrayList<>();
+        for (int q = 0; q < session.getQuestionCount(); q++) {
+            questions.add(session.getCurrentQuestion());
+            session.moveToNextQuestion();
+        }
+        Map<String, String> lastAccepted = new ConcurrentHashMap<>();
+        Thread[] writers = new Thread[WRITERS_PER_SESSION];
+        for (int w = 0; w < writers.length; w++) {
+            int firstQuestion = w * (QUESTIONS / WRITERS_PER_SESSION);
+            writers[w] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int k = 0; k < ANSWERS_PER_WRITER; k++) {
+                    Question question = questions.get(firstQuestion + k % (QUESTIONS / WRITERS_PER_SESSION));
+                    String answer = random.nextBoolean() ? "A" : "B";
+                    if (session.submitAnswer(question, answer)) {
+                        lastAccepted.put(question.getQuestionId(), answer); // One writer per question
+                    }
+                }
+            });
+            writers[w].start();
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        ExamResult submitted = null;
+        if (random.nextBoolean()) {
+            Thread.sleep(random.nextInt(20));
+            submitted = session.submit();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        ExamResult result = student.submitExam(session); // Waits for the timeout's grading if it won
+        if (submitted != null && submitted != result) {
+            failures.add(username + ": two results");
+        }
+        if (session.getState() != SessionState.SUBMITTED) {
+            failures.add(username + ": state " + session.getState());
+        }
+        Map<Question, String> sealed = session.getStudentAnswers();
+        int score = 0;
+        for (Map.Entry<Question, String> answer : sealed.entrySet()) {
+            score += answer.getKey().checkAnswer(answer.getValue());
+            if (!answer.getValue().equals(lastAccepted.get(answer.getKey().getQuestionId()))) {
+                failures.add(username + ": sealed answer differs from the last accepted one");
+            }
+        }
+        if (sealed.size() != lastAccepted.size()) {
+            failures.add(username + ": " + sealed.size() + " sealed answers, " + lastAccepted.size() + " accepted");
+        }
+        if (score != result.getScore()) {
+            failures.add(username + ": score " + result.getScore() + ", sealed answers are worth " + score);
+        }
+    }
+}